@@ -0,0 +1,54 @@
+package com.pm.inventoryservice.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Every instance shares the application id, so the stock view's partitions are spread across them
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "inventory.streams.enabled", havingValue = "true")
+public class InventoryStreamsConfig {
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${inventory.streams.application-id:inventory-stock-view}")
+    private String applicationId;
+
+    @Value("${inventory.streams.application-server:localhost:8081}")
+    private String applicationServer;
+
+    @Value("${inventory.streams.state-dir:/tmp/kafka-streams}")
+    private String stateDir;
+
+    @Value("${inventory.streams.standby-replicas:1}")
+    private int standbyReplicas;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        Map<String, Object> configs = new HashMap<>();
+
+        configs.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        configs.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configs.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        configs.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        // host:port of this instance's HTTP endpoint, advertised so peers can route queries for keys it owns
+        configs.put(StreamsConfig.APPLICATION_SERVER_CONFIG, applicationServer);
+        configs.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        // A warm copy of each store on another instance, so failover does not replay the changelog
+        configs.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, standbyReplicas);
+        configs.put(StreamsConfig.consumerPrefix(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG), "earliest");
+        return new KafkaStreamsConfiguration(configs);
+    }
+}
@@ -0,0 +1,37 @@
+package com.pm.inventoryservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+// Declaring any scheduler turns off Boot's default one, so the shared pool is declared here too,
+// still sized by spring.task.scheduling.*. Jobs that must keep running while slow jobs hold the
+// shared threads name their own scheduler in @Scheduled(scheduler = ...)
+@Configuration
+public class SchedulingConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    // Change applier and hold expiry; while they stall, Postgres falls behind Redis and expired holds stay held
+    @Bean
+    public ThreadPoolTaskScheduler redisReservationScheduler(
+            ThreadPoolTaskSchedulerBuilder builder,
+            @Value("${inventory.redis-reservations.scheduler-pool-size:2}") int poolSize) {
+        return builder.poolSize(poolSize)
+                .threadNamePrefix("redis-reservations-")
+                .build();
+    }
+
+    // One thread: a batch can wait on Kafka for the whole send timeout, and runs must not overlap
+    @Bean
+    public ThreadPoolTaskScheduler outboxScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.poolSize(1)
+                .threadNamePrefix("outbox-")
+                .build();
+    }
+}
@@ -1,21 +1,39 @@
 package com.pm.inventoryservice.controller;
 
 
+import com.pm.inventoryservice.dto.request.AllocationPreferenceDTO;
+import com.pm.inventoryservice.dto.request.BulkReservationRequestDTO;
+import com.pm.inventoryservice.dto.request.BulkStockAdjustmentRequestDTO;
 import com.pm.inventoryservice.dto.request.InventoryCreateRequestDTO;
 import com.pm.inventoryservice.dto.request.InventoryUpdateRequestDTO;
 import com.pm.inventoryservice.dto.request.ReservationItemDTO;
 import com.pm.inventoryservice.dto.request.StockAdjustmentRequestDTO;
+import com.pm.inventoryservice.dto.response.BulkOperationResultDTO;
+import com.pm.inventoryservice.dto.response.BulkReservationResultDTO;
+import com.pm.inventoryservice.dto.response.ImportReportDTO;
 import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
 import com.pm.inventoryservice.dto.response.StockCheckResponseDTO;
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
+import com.pm.inventoryservice.model.AllocationStrategy;
+import com.pm.inventoryservice.model.ImportFormat;
+import com.pm.inventoryservice.service.BulkReservationService;
+import com.pm.inventoryservice.service.BulkStockAdjustmentService;
+import com.pm.inventoryservice.service.InventoryImportService;
 import com.pm.inventoryservice.service.InventoryService;
+import com.pm.inventoryservice.service.ReservationEngineRouter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.Response;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,6 +44,10 @@ import java.util.UUID;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final InventoryImportService inventoryImportService;
+    private final BulkStockAdjustmentService bulkStockAdjustmentService;
+    private final BulkReservationService bulkReservationService;
+    private final ReservationEngineRouter reservationEngineRouter;
     
     @PostMapping
     @Operation(summary = "Create inventory", description = "Creates a new inventory item and adds available stock")
@@ -33,6 +55,22 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.createInventory(requestDTO, requestDTO.getInitialQuantity()));
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import inventory from CSV", description = "Streams a CSV catalog with a header row into inventory and reports per-row errors")
+    public ResponseEntity<ImportReportDTO> importInventoryCsv(InputStream body) throws IOException {
+        try (body) {
+            return ResponseEntity.ok(inventoryImportService.importInventory(body, ImportFormat.CSV));
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Import inventory from NDJSON", description = "Streams newline-delimited inventory objects into inventory and reports per-row errors")
+    public ResponseEntity<ImportReportDTO> importInventoryNdjson(InputStream body) throws IOException {
+        try (body) {
+            return ResponseEntity.ok(inventoryImportService.importInventory(body, ImportFormat.NDJSON));
+        }
+    }
+
     @GetMapping("/{productId}")
     @Operation(summary = "Get inventory by product ID", description = "Retrieves inventory information for a specific product")
     public ResponseEntity<InventoryResponseDTO> getInventoryByProductId(@PathVariable UUID productId) {
@@ -85,6 +123,32 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.adjustStock(productId, adjustment));
     }
 
+    @PostMapping("/{productId}/sharding")
+    @Operation(summary = "Enable sharded stock", description = "Splits available stock across bucket rows so reservations on a hot product do not contend on one row")
+    public ResponseEntity<StockTotalsDTO> enableShardedStock(
+            @PathVariable UUID productId,
+            @RequestParam(required = false) Integer shards) {
+        return ResponseEntity.ok(inventoryService.enableShardedStock(productId, shards));
+    }
+
+    @DeleteMapping("/{productId}/sharding")
+    @Operation(summary = "Disable sharded stock", description = "Folds the bucket rows back into the inventory row")
+    public ResponseEntity<StockTotalsDTO> disableShardedStock(@PathVariable UUID productId) {
+        return ResponseEntity.ok(inventoryService.disableShardedStock(productId));
+    }
+
+    @PostMapping("/{productId}/sharding/rebalance")
+    @Operation(summary = "Rebalance sharded stock", description = "Evens out available stock across the product's buckets")
+    public ResponseEntity<StockTotalsDTO> rebalanceShardedStock(@PathVariable UUID productId) {
+        return ResponseEntity.ok(inventoryService.rebalanceShardedStock(productId));
+    }
+
+    @PostMapping("/stock/bulk-adjust")
+    @Operation(summary = "Bulk adjust stock", description = "Applies stock adjustments for many products in chunked transactions and reports the outcome per item")
+    public ResponseEntity<BulkOperationResultDTO> bulkAdjustStock(@Valid @RequestBody BulkStockAdjustmentRequestDTO request) {
+        return ResponseEntity.ok(bulkStockAdjustmentService.adjustStock(request));
+    }
+
     @GetMapping("/{productId}/stock")
     @Operation(summary = "Check stock", description = "Checks current stock level for a product")
     public ResponseEntity<?> checkStock(@PathVariable UUID productId, @RequestParam int quantity) {
@@ -99,22 +163,44 @@ public class InventoryController {
 
     @PostMapping("/reservations")
     @Operation(summary = "Reserve stock", description = "Reserves stock for an order")
-    public ResponseEntity<?> reserveStock(@RequestParam UUID orderId, @RequestBody List<ReservationItemDTO> items) {
-        return ResponseEntity.ok(inventoryService.reserveStock(orderId, items));
+    public ResponseEntity<?> reserveStock(@RequestParam UUID orderId,
+                                          @RequestParam(required = false) AllocationStrategy strategy,
+                                          @RequestParam(required = false) Double latitude,
+                                          @RequestParam(required = false) Double longitude,
+                                          @RequestBody List<ReservationItemDTO> items) {
+        AllocationPreferenceDTO preference = AllocationPreferenceDTO.builder()
+                .strategy(strategy)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+        return ResponseEntity.ok(reservationEngineRouter.reserveStock(orderId, items, preference));
     }
 
     @PutMapping("/reservations/{orderId}/confirm")
     @Operation(summary = "Confirm reservation", description = "Confirms a stock reservation")
     public ResponseEntity<?> confirmReservation(@PathVariable UUID orderId) {
-        return ResponseEntity.ok(inventoryService.confirmReservation(orderId));
+        return ResponseEntity.ok(reservationEngineRouter.confirmReservation(orderId));
     }
 
     @PutMapping("/reservations/{orderId}/release")
     @Operation(summary = "Release reservation", description = "Releases a stock reservation")
     public ResponseEntity<Void> releaseReservation(@PathVariable UUID orderId) {
+        reservationEngineRouter.releaseReservation(orderId);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/reservations/bulk-confirm")
+    @Operation(summary = "Bulk confirm reservations", description = "Confirms the reservations of many orders in chunked transactions and reports the outcome per order")
+    public ResponseEntity<BulkReservationResultDTO> bulkConfirmReservations(@Valid @RequestBody BulkReservationRequestDTO request) {
+        return ResponseEntity.ok(bulkReservationService.confirmReservations(request.getOrderIds()));
+    }
+
+    @PostMapping("/reservations/bulk-release")
+    @Operation(summary = "Bulk release reservations", description = "Releases the reservations of many orders in chunked transactions and reports the outcome per order")
+    public ResponseEntity<BulkReservationResultDTO> bulkReleaseReservations(@Valid @RequestBody BulkReservationRequestDTO request) {
+        return ResponseEntity.ok(bulkReservationService.releaseReservations(request.getOrderIds()));
+    }
+
     @GetMapping("/reservations/{orderId}")
     @Operation(summary = "Get reservations by order ID", description = "Retrieves reservations for an order")
     public ResponseEntity<?> getReservationsByOrderId(@PathVariable UUID orderId) {
@@ -122,15 +208,26 @@ public class InventoryController {
     }
 
     @GetMapping("/low-stock")
-    @Operation(summary = "Get low stock items", description = "Retrieves items with low stock levels")
-    public ResponseEntity<?> getLowStockItems() {
-        return ResponseEntity.ok(inventoryService.getLowStockItems());
+    @Operation(summary = "Get low stock items", description = "Retrieves items with low stock levels with pagination")
+    public ResponseEntity<?> getLowStockItems(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(inventoryService.getLowStockItems(page, size));
     }
 
     @GetMapping("/{productId}/movements")
-    @Operation(summary = "Get stock movement history", description = "Retrieves stock movement history for a product")
-    public ResponseEntity<?> getStockMovementHistory(@PathVariable UUID productId) {
-        return ResponseEntity.ok(inventoryService.getStockMovementHistory(productId));
+    @Operation(summary = "Get stock movement history",
+            description = "Retrieves stock movement history for a product, newest first. Defaults to the last 90 days; " +
+                    "pass the returned cursor to fetch the next page")
+    public ResponseEntity<?> getStockMovementHistory(
+            @PathVariable UUID productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) UUID cursorMovementId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(inventoryService.getStockMovementHistory(
+                productId, from, to, cursorCreatedAt, cursorMovementId, limit));
     }
     
     
@@ -0,0 +1,86 @@
+package com.pm.inventoryservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.ledger.LedgerVerificationReportDTO;
+import com.pm.inventoryservice.dto.ledger.StockProjectionDTO;
+import com.pm.inventoryservice.service.InventoryLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/ledger")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Inventory Ledger", description = "Rebuild and verify inventory from the stock movement ledger")
+public class InventoryLedgerController {
+
+    private final InventoryLedgerService inventoryLedgerService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/{productId}")
+    @Operation(summary = "Project stock from ledger", description = "Replays the movement ledger for a product from its latest snapshot")
+    public ResponseEntity<StockProjectionDTO> projectStock(@PathVariable UUID productId) {
+        return ResponseEntity.ok(inventoryLedgerService.projectCurrent(productId));
+    }
+
+    @GetMapping("/{productId}/as-of")
+    @Operation(summary = "Get stock at a point in time", description = "Available and reserved stock for a product as it stood at the given instant")
+    public ResponseEntity<StockProjectionDTO> projectStockAt(
+            @PathVariable UUID productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(inventoryLedgerService.projectAt(productId, at));
+    }
+
+    @GetMapping(value = "/as-of", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Get catalog stock at a point in time",
+            description = "Streams one newline-delimited projection per product as it stood at the given instant")
+    public ResponseEntity<StreamingResponseBody> projectCatalogAt(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        log.info("Streaming catalog stock as of {}", at);
+        StreamingResponseBody body = outputStream -> {
+            inventoryLedgerService.projectCatalogAt(at, projection -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(projection));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/{productId}/rebuild")
+    @Operation(summary = "Rebuild inventory from ledger", description = "Overwrites the inventory quantities with the ledger projection")
+    public ResponseEntity<StockProjectionDTO> rebuildInventory(@PathVariable UUID productId) {
+        log.info("Rebuilding inventory from ledger for productId: {}", productId);
+        return ResponseEntity.ok(inventoryLedgerService.rebuildInventory(productId));
+    }
+
+    @PostMapping("/verify")
+    @Operation(summary = "Verify ledger", description = "Compares every inventory row with its ledger projection in parallel")
+    public ResponseEntity<LedgerVerificationReportDTO> verify() {
+        log.info("Starting ledger verification");
+        return ResponseEntity.ok(inventoryLedgerService.verify());
+    }
+
+    @PostMapping("/snapshots")
+    @Operation(summary = "Take ledger snapshots", description = "Writes a snapshot for every product with enough new movements")
+    public ResponseEntity<String> snapshotAll() {
+        inventoryLedgerService.snapshotAll();
+        return ResponseEntity.ok("Snapshot run complete");
+    }
+}
@@ -0,0 +1,39 @@
+package com.pm.inventoryservice.controller;
+
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.service.InventoryStockViewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/inventory/stock-view")
+@ConditionalOnProperty(name = "inventory.streams.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Tag(name = "Stock View", description = "Stock reads served from the Kafka Streams state store")
+public class InventoryStockViewController {
+
+    private final InventoryStockViewService inventoryStockViewService;
+
+    @GetMapping("/{productId}")
+    @Operation(summary = "Get stock from the stream view",
+            description = "Reads the product's latest stock from whichever instance owns it, without querying the database")
+    public ResponseEntity<InventoryResponseDTO> getStock(@PathVariable UUID productId) {
+        return ResponseEntity.ok(inventoryStockViewService.getStock(productId));
+    }
+
+    @GetMapping("/{productId}/local")
+    @Operation(summary = "Get stock from this instance's store",
+            description = "Reads the local active or standby copy only; used by peers routing a query here")
+    public ResponseEntity<InventoryResponseDTO> getLocalStock(@PathVariable UUID productId) {
+        return ResponseEntity.ok(inventoryStockViewService.getLocalStock(productId));
+    }
+}
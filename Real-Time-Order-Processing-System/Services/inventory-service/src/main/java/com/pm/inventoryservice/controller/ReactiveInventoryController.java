@@ -0,0 +1,97 @@
+package com.pm.inventoryservice.controller;
+
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.dto.response.StockCheckResponseDTO;
+import com.pm.inventoryservice.service.InventoryChangeFeed;
+import com.pm.inventoryservice.service.ReactiveStockQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Returns publishers, so each request is handled asynchronously and holds no servlet thread while it waits on I/O
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/reactive/inventory")
+@Tag(name = "Reactive Availability", description = "Non-blocking read-only availability API")
+public class ReactiveInventoryController {
+
+    private final ReactiveStockQueryService reactiveStockQueryService;
+    private final InventoryChangeFeed inventoryChangeFeed;
+
+    @Value("${inventory.reactive.stream-interval:PT1S}")
+    private Duration defaultStreamInterval;
+
+    @Value("${inventory.change-feed.coalesce-window:PT0.5S}")
+    private Duration defaultCoalesceWindow;
+
+    @GetMapping("/{productId}")
+    @Operation(summary = "Get inventory by product ID", description = "Non-blocking read of a product's inventory")
+    public Mono<ResponseEntity<InventoryResponseDTO>> getInventoryByProductId(@PathVariable UUID productId) {
+        return reactiveStockQueryService.getInventoryByProductId(productId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/sku/{sku}")
+    @Operation(summary = "Get inventory by SKU", description = "Non-blocking read of inventory by SKU")
+    public Mono<ResponseEntity<InventoryResponseDTO>> getInventoryBySku(@PathVariable String sku) {
+        return reactiveStockQueryService.getInventoryBySku(sku).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{productId}/stock")
+    @Operation(summary = "Check stock", description = "Non-blocking stock check for a product")
+    public Mono<ResponseEntity<StockCheckResponseDTO>> checkStock(@PathVariable UUID productId, @RequestParam int quantity) {
+        return reactiveStockQueryService.checkStock(productId, quantity).map(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/stock/check-batch", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Check stock batch",
+            description = "Checks stock for many products; request application/x-ndjson to receive results as they are computed")
+    public Flux<StockCheckResponseDTO> checkStockBatch(@Valid @RequestBody List<ReservationItemDTO> items) {
+        return reactiveStockQueryService.checkStockBatch(items);
+    }
+
+    @GetMapping(value = "/{productId}/stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream stock availability",
+            description = "Server-sent events with the product's availability, sent on connect and whenever it changes")
+    public Flux<ServerSentEvent<StockCheckResponseDTO>> streamStock(
+            @PathVariable UUID productId,
+            @RequestParam(defaultValue = "1") int quantity,
+            @RequestParam(required = false) Duration interval) {
+        Duration window = interval != null ? interval : defaultStreamInterval;
+        // Pushed from the change feed when it sees every mutation; polled otherwise
+        Flux<StockCheckResponseDTO> checks = inventoryChangeFeed.coversAllMutations()
+                ? inventoryChangeFeed.subscribeStockCheck(productId, quantity, window)
+                : reactiveStockQueryService.streamStockCheck(productId, quantity, window);
+        return checks
+                .map(check -> ServerSentEvent.<StockCheckResponseDTO>builder(check)
+                        .event("availability")
+                        .id(productId.toString())
+                        .build());
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream inventory changes",
+            description = "Server-sent events with the current state of each product, then its latest state at most once per coalescing window")
+    public Flux<ServerSentEvent<InventoryResponseDTO>> streamChanges(
+            @RequestParam Set<UUID> productIds,
+            @RequestParam(required = false) Duration coalesce) {
+        return inventoryChangeFeed.subscribe(productIds, coalesce != null ? coalesce : defaultCoalesceWindow)
+                .map(inventory -> ServerSentEvent.<InventoryResponseDTO>builder(inventory)
+                        .event("inventory")
+                        .id(inventory.getProductId().toString())
+                        .build());
+    }
+}
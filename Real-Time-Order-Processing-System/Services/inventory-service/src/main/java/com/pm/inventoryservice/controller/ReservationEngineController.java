@@ -0,0 +1,45 @@
+package com.pm.inventoryservice.controller;
+
+import com.pm.inventoryservice.dto.response.ReservationEngineReconciliationDTO;
+import com.pm.inventoryservice.dto.response.ReservationEngineStatusDTO;
+import com.pm.inventoryservice.model.ReservationEngineMode;
+import com.pm.inventoryservice.service.RedisReservationEngine;
+import com.pm.inventoryservice.service.RedisStockReconciler;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/reservation-engine")
+@ConditionalOnProperty(name = "inventory.redis-reservations.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reservation Engine", description = "Switch reservations between the database and Redis and reconcile the two")
+public class ReservationEngineController {
+
+    private final RedisReservationEngine redisReservationEngine;
+    private final RedisStockReconciler redisStockReconciler;
+
+    @GetMapping
+    @Operation(summary = "Get engine status", description = "Current mode, unapplied Redis changes and open Redis holds")
+    public ResponseEntity<ReservationEngineStatusDTO> getStatus() {
+        return ResponseEntity.ok(redisReservationEngine.getStatus());
+    }
+
+    @PutMapping("/mode")
+    @Operation(summary = "Switch engine", description = "Moves reservations to REDIS or back to DATABASE, draining in between")
+    public ResponseEntity<ReservationEngineStatusDTO> switchMode(@RequestParam ReservationEngineMode mode) {
+        log.info("Switching reservation engine to {}", mode);
+        return ResponseEntity.ok(redisReservationEngine.switchMode(mode));
+    }
+
+    @PostMapping("/reconcile")
+    @Operation(summary = "Reconcile Redis with the database", description = "Reports counter drift and optionally repairs drift seen on two runs")
+    public ResponseEntity<ReservationEngineReconciliationDTO> reconcile(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(redisStockReconciler.reconcile(repair));
+    }
+}
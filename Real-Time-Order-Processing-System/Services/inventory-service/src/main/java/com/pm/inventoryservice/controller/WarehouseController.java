@@ -0,0 +1,60 @@
+package com.pm.inventoryservice.controller;
+
+import com.pm.inventoryservice.dto.request.StockAdjustmentRequestDTO;
+import com.pm.inventoryservice.dto.request.WarehouseRequestDTO;
+import com.pm.inventoryservice.dto.response.WarehouseResponseDTO;
+import com.pm.inventoryservice.dto.response.WarehouseStockResponseDTO;
+import com.pm.inventoryservice.service.InventoryService;
+import com.pm.inventoryservice.service.WarehouseService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/warehouses")
+@RequiredArgsConstructor
+@Tag(name = "Warehouse Management", description = "Warehouses and per-warehouse stock")
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+    private final InventoryService inventoryService;
+
+    @PostMapping
+    @Operation(summary = "Create warehouse", description = "Registers a warehouse and its location for allocation")
+    public ResponseEntity<WarehouseResponseDTO> createWarehouse(@Valid @RequestBody WarehouseRequestDTO requestDTO) {
+        return ResponseEntity.ok(warehouseService.createWarehouse(requestDTO));
+    }
+
+    @GetMapping
+    @Operation(summary = "Get warehouses", description = "Lists all warehouses")
+    public ResponseEntity<List<WarehouseResponseDTO>> getWarehouses() {
+        return ResponseEntity.ok(warehouseService.getWarehouses());
+    }
+
+    @PutMapping("/{code}/active")
+    @Operation(summary = "Activate or deactivate warehouse", description = "Inactive warehouses are skipped by allocation")
+    public ResponseEntity<WarehouseResponseDTO> setActive(@PathVariable String code, @RequestParam boolean active) {
+        return ResponseEntity.ok(warehouseService.setActive(code, active));
+    }
+
+    @PutMapping("/{code}/stock/{productId}")
+    @Operation(summary = "Adjust warehouse stock", description = "Adjusts a product's stock in one warehouse and its inventory total")
+    public ResponseEntity<WarehouseStockResponseDTO> adjustWarehouseStock(
+            @PathVariable String code,
+            @PathVariable UUID productId,
+            @Valid @RequestBody StockAdjustmentRequestDTO adjustment) {
+        return ResponseEntity.ok(inventoryService.adjustWarehouseStock(code, productId, adjustment));
+    }
+
+    @GetMapping("/stock/{productId}")
+    @Operation(summary = "Get warehouse stock", description = "Retrieves a product's stock per warehouse")
+    public ResponseEntity<List<WarehouseStockResponseDTO>> getStock(@PathVariable UUID productId) {
+        return ResponseEntity.ok(warehouseService.getStock(productId));
+    }
+}
@@ -0,0 +1,30 @@
+package com.pm.inventoryservice.dto.command;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.model.InventoryCommandType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+// Read from inventory-commands, keyed by orderId; items are only used by RESERVE
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class InventoryCommandDTO {
+    @NotNull
+    private UUID orderId;
+
+    @NotNull
+    private InventoryCommandType commandType;
+
+    private List<@NotNull @Valid ReservationItemDTO> items;
+}
@@ -0,0 +1,25 @@
+package com.pm.inventoryservice.dto.command;
+
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.model.InventoryCommandType;
+import com.pm.inventoryservice.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCommandReplyDTO {
+    private UUID orderId;
+    private InventoryCommandType commandType;
+    private boolean success;
+    private ReservationStatus reservationStatus;
+    private List<StockReservationResponseDTO> reservations;
+    private String message;
+}
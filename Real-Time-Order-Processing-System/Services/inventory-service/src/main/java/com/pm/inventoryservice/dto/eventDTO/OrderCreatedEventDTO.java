@@ -0,0 +1,24 @@
+package com.pm.inventoryservice.dto.eventDTO;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+// Subset of order-service's OrderResponseDTO published on order-events
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderCreatedEventDTO {
+    private UUID orderId;
+    private UUID customerId;
+    private String orderStatus;
+    private List<ReservationItemDTO> orderItems;
+}
@@ -0,0 +1,19 @@
+package com.pm.inventoryservice.dto.ledger;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBalanceDTO {
+    private UUID inventoryId;
+    private UUID productId;
+    private int quantityAvailable;
+    private int quantityReserved;
+}
@@ -0,0 +1,20 @@
+package com.pm.inventoryservice.dto.ledger;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerDriftDTO {
+    private UUID productId;
+    private int ledgerAvailable;
+    private int ledgerReserved;
+    private int tableAvailable;
+    private int tableReserved;
+}
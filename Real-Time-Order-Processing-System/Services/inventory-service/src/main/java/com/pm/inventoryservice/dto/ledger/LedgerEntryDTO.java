@@ -0,0 +1,22 @@
+package com.pm.inventoryservice.dto.ledger;
+
+import com.pm.inventoryservice.model.MovementType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntryDTO {
+    private UUID movementId;
+    private MovementType movementType;
+    private Integer quantity;
+    private Integer newQuantity;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.pm.inventoryservice.dto.ledger;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerVerificationReportDTO {
+    private int productsChecked;
+    private int driftCount;
+    private int failures;
+    private Duration duration;
+    private List<LedgerDriftDTO> drifts;
+}
@@ -0,0 +1,23 @@
+package com.pm.inventoryservice.dto.ledger;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockProjectionDTO {
+    private UUID inventoryId;
+    private UUID productId;
+    private int quantityAvailable;
+    private int quantityReserved;
+    private LocalDateTime lastMovementAt;
+    private UUID snapshotId;
+    private long movementsReplayed;
+}
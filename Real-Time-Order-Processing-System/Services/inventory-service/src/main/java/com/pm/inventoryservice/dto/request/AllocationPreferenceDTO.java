@@ -0,0 +1,18 @@
+package com.pm.inventoryservice.dto.request;
+
+import com.pm.inventoryservice.model.AllocationStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AllocationPreferenceDTO {
+    private AllocationStrategy strategy;
+    // Shipping destination; warehouses are ranked by distance to it when present
+    private Double latitude;
+    private Double longitude;
+}
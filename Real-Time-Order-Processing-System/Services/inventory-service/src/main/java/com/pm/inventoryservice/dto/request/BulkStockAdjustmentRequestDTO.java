@@ -0,0 +1,23 @@
+package com.pm.inventoryservice.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockAdjustmentRequestDTO {
+
+    @NotEmpty
+    @Valid
+    private List<BulkStockAdjustmentItemDTO> adjustments;
+
+    private String adjustedBy;
+}
@@ -17,6 +17,7 @@ public class ReservationItemDTO {
     @NotNull
     private UUID productId;
 
+    @NotNull
     @Min(1)
     private Integer quantity;
 }
@@ -0,0 +1,21 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    private int index;
+    private UUID productId;
+    private boolean success;
+    private Integer previousQuantity;
+    private Integer newQuantity;
+    private String message;
+}
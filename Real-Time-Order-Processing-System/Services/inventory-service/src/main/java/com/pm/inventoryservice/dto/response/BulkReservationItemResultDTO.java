@@ -0,0 +1,21 @@
+package com.pm.inventoryservice.dto.response;
+
+import com.pm.inventoryservice.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReservationItemResultDTO {
+    private UUID orderId;
+    private boolean success;
+    private ReservationStatus reservationStatus;
+    private Integer lines;
+    private String message;
+}
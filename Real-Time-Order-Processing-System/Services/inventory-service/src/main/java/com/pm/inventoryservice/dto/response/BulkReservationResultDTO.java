@@ -0,0 +1,21 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkReservationResultDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private Duration duration;
+    private List<BulkReservationItemResultDTO> results;
+}
@@ -0,0 +1,23 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    // Set when the upload could not be parsed past some row; rows before it were still imported
+    private boolean aborted;
+    private Duration duration;
+    private List<ImportRowErrorDTO> errors;
+}
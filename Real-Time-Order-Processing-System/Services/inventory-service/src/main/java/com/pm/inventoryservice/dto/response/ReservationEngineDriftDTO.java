@@ -0,0 +1,21 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationEngineDriftDTO {
+    private UUID productId;
+    private int redisAvailable;
+    private int redisReserved;
+    private int databaseAvailable;
+    private int databaseReserved;
+    private boolean repaired;
+}
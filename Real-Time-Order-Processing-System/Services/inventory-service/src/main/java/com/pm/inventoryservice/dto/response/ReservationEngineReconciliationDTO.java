@@ -0,0 +1,20 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationEngineReconciliationDTO {
+    private int checked;
+    private int skipped;
+    private List<ReservationEngineDriftDTO> drifts;
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,18 @@
+package com.pm.inventoryservice.dto.response;
+
+import com.pm.inventoryservice.model.ReservationEngineMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationEngineStatusDTO {
+    private ReservationEngineMode mode;
+    private long pendingChanges;
+    private String lastAppliedId;
+    private long openHolds;
+}
@@ -0,0 +1,22 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementPageDTO {
+
+    private List<StockMovementResponseDTO> movements;
+    private boolean hasMore;
+    private LocalDateTime nextCursorCreatedAt;
+    private UUID nextCursorMovementId;
+}
@@ -19,6 +19,7 @@ public class StockReservationResponseDTO {
     private UUID orderId;
     private UUID productId;
     private Integer quantityReserved;
+    private String warehouseCode;
     private ReservationStatus reservationStatus;
     private LocalDateTime expiresAt;
     private LocalDateTime createdAt;
@@ -0,0 +1,16 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTotalsDTO {
+    private int quantityAvailable;
+    private int quantityReserved;
+    private int shardCount;
+}
@@ -0,0 +1,23 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseResponseDTO {
+    private UUID warehouseId;
+    private String code;
+    private String name;
+    private double latitude;
+    private double longitude;
+    private boolean active;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.pm.inventoryservice.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseStockResponseDTO {
+    private UUID productId;
+    private String warehouseCode;
+    private int quantityAvailable;
+    private int quantityReserved;
+    private LocalDateTime updatedAt;
+}
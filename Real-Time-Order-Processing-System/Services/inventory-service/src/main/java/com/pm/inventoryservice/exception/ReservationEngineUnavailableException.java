@@ -0,0 +1,7 @@
+package com.pm.inventoryservice.exception;
+
+public class ReservationEngineUnavailableException extends RuntimeException {
+    public ReservationEngineUnavailableException(String message) {
+        super(message);
+    }
+}
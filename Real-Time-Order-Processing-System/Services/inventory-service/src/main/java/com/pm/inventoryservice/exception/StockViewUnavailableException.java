@@ -0,0 +1,7 @@
+package com.pm.inventoryservice.exception;
+
+public class StockViewUnavailableException extends RuntimeException {
+    public StockViewUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.pm.inventoryservice.kafka.consumers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.model.EventType;
+import com.pm.inventoryservice.service.InventoryChangeFeed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+// Each instance reads inventory-events in its own group from the latest offset, so every instance sees every change
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryChangeFeedConsumer {
+
+    private static final String EVENT_TYPE_HEADER = "eventType";
+    private static final Set<String> SNAPSHOT_EVENT_TYPES = Set.of(
+            EventType.INVENTORY_CREATED.name(),
+            EventType.INVENTORY_UPDATED.name(),
+            EventType.STOCK_ADDED.name(),
+            EventType.STOCK_ADJUSTED.name(),
+            EventType.LOW_STOCK_ALERT.name(),
+            EventType.STOCK_LEVEL_CHANGED.name());
+
+    private final InventoryChangeFeed inventoryChangeFeed;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = "${inventory.change-feed.topic:inventory-events}",
+            groupId = "inventory-change-feed-#{T(java.util.UUID).randomUUID()}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${inventory.kafka.consumers.enabled:true}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void handleInventoryEvents(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        for (ConsumerRecord<String, String> record : records) {
+            Header eventType = record.headers().lastHeader(EVENT_TYPE_HEADER);
+            if (eventType == null || record.value() == null
+                    || !SNAPSHOT_EVENT_TYPES.contains(new String(eventType.value(), StandardCharsets.UTF_8))) {
+                continue;
+            }
+            try {
+                inventoryChangeFeed.publish(objectMapper.readValue(record.value(), InventoryResponseDTO.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable inventory snapshot for key {}: {}", record.key(), e.getMessage());
+            }
+        }
+        acknowledgment.acknowledge();
+    }
+}
@@ -0,0 +1,146 @@
+package com.pm.inventoryservice.kafka.consumers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.command.InventoryCommandDTO;
+import com.pm.inventoryservice.dto.command.InventoryCommandReplyDTO;
+import com.pm.inventoryservice.model.InventoryCommandType;
+import com.pm.inventoryservice.service.InventoryCommandService;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Request/reply endpoint for reservations. Each poll is executed as one batch and every
+ * command is answered on the topic named in its reply-topic header, or the default reply
+ * topic, carrying the caller's correlation id. Replies are sent as each command completes and
+ * polls are kept small, so callers get answers within their reply timeout. The poll is
+ * acknowledged only once all replies are written; commands are idempotent, so a redelivered
+ * poll answers the same way again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCommandConsumer {
+
+    private final InventoryCommandService inventoryCommandService;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${inventory.kafka.topics.inventory-command-replies:inventory-command-replies}")
+    private String defaultReplyTopic;
+
+    @KafkaListener(
+            topics = "${inventory.kafka.topics.inventory-commands:inventory-commands}",
+            groupId = "inventory-service-commands",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${inventory.kafka.consumers.enabled:true}",
+            properties = "max.poll.records=${inventory.kafka.commands.max-poll-records:50}"
+    )
+    public void handleCommands(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        List<ConsumerRecord<String, String>> accepted = new ArrayList<>(records.size());
+        List<InventoryCommandDTO> commands = new ArrayList<>(records.size());
+        List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, String> record : records) {
+            InventoryCommandDTO command = toCommand(record);
+            String violations = command != null ? violations(command) : "";
+            if (command != null && violations.isEmpty()) {
+                accepted.add(record);
+                commands.add(command);
+            } else {
+                sends.add(sendReply(record, InventoryCommandReplyDTO.builder()
+                        .orderId(command != null ? command.getOrderId() : parseOrderId(record.key()))
+                        .commandType(command != null ? command.getCommandType() : null)
+                        .success(false)
+                        .message(command != null ? "Invalid inventory command: " + violations
+                                : "Unreadable or incomplete inventory command")
+                        .build()));
+            }
+        }
+
+        inventoryCommandService.execute(commands, (index, reply) -> sends.add(sendReply(accepted.get(index), reply)));
+
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        acknowledgment.acknowledge();
+        log.debug("Processed {} inventory commands", records.size());
+    }
+
+    private InventoryCommandDTO toCommand(ConsumerRecord<String, String> record) {
+        try {
+            InventoryCommandDTO command = objectMapper.readValue(record.value(), InventoryCommandDTO.class);
+            if (command.getOrderId() == null || command.getCommandType() == null) {
+                log.warn("Skipping inventory command without orderId or commandType at offset {}", record.offset());
+                return null;
+            }
+            if (command.getCommandType() == InventoryCommandType.RESERVE
+                    && (command.getItems() == null || command.getItems().isEmpty())) {
+                log.warn("Skipping reserve command without items for orderId: {}", command.getOrderId());
+                return null;
+            }
+            return command;
+        } catch (JsonProcessingException e) {
+            log.error("Skipping unreadable inventory command at partition {} offset {}: {}",
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Bean validation does not run on the Kafka path, so the command and item constraints are checked here
+    private String violations(InventoryCommandDTO command) {
+        return validator.validate(command).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private CompletableFuture<?> sendReply(ConsumerRecord<String, String> request, InventoryCommandReplyDTO reply) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(reply);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing inventory command reply: {}", e.getMessage());
+            throw new RuntimeException("Error serializing inventory command reply");
+        }
+
+        Header replyTopic = request.headers().lastHeader(KafkaHeaders.REPLY_TOPIC);
+        Header replyPartition = request.headers().lastHeader(KafkaHeaders.REPLY_PARTITION);
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                replyTopic != null ? new String(replyTopic.value(), StandardCharsets.UTF_8) : defaultReplyTopic,
+                replyPartition != null ? ByteBuffer.wrap(replyPartition.value()).getInt() : null,
+                request.key(),
+                payload);
+
+        Header correlationId = request.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+        if (correlationId != null) {
+            record.headers().add(KafkaHeaders.CORRELATION_ID, correlationId.value());
+        }
+        return kafkaTemplate.send(record);
+    }
+
+    private static UUID parseOrderId(String key) {
+        try {
+            return key != null ? UUID.fromString(key) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
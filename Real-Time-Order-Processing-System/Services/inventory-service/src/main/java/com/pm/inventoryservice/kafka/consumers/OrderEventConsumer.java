@@ -0,0 +1,77 @@
+package com.pm.inventoryservice.kafka.consumers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.eventDTO.OrderCreatedEventDTO;
+import com.pm.inventoryservice.service.OrderReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderEventConsumer {
+
+    private static final String EVENT_TYPE_HEADER = "eventType";
+    private static final String ORDER_CREATED = "ORDER_CREATED";
+    private static final String PENDING = "PENDING";
+
+    private final OrderReservationService orderReservationService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(
+            topics = "${inventory.kafka.topics.order-events:order-events}",
+            groupId = "inventory-service-reservations",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${inventory.kafka.consumers.enabled:true}"
+    )
+    public void handleOrderEvents(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        List<OrderCreatedEventDTO> createdOrders = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            OrderCreatedEventDTO order = toCreatedOrder(record);
+            if (order != null) {
+                createdOrders.add(order);
+            }
+        }
+
+        if (!createdOrders.isEmpty()) {
+            orderReservationService.reserveOrders(createdOrders);
+        }
+        acknowledgment.acknowledge();
+        log.debug("Processed {} order events, {} reservations requested", records.size(), createdOrders.size());
+    }
+
+    // order-service does not tag its events yet, so a newly created order is recognised by its
+    // PENDING status; an explicit eventType header takes precedence when present
+    private OrderCreatedEventDTO toCreatedOrder(ConsumerRecord<String, String> record) {
+        Header eventType = record.headers().lastHeader(EVENT_TYPE_HEADER);
+        if (eventType != null && !ORDER_CREATED.equals(new String(eventType.value(), StandardCharsets.UTF_8))) {
+            return null;
+        }
+
+        try {
+            OrderCreatedEventDTO order = objectMapper.readValue(record.value(), OrderCreatedEventDTO.class);
+            if (order.getOrderId() == null || order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+                log.warn("Skipping order event without orderId or items at offset {}", record.offset());
+                return null;
+            }
+            if (eventType == null && !PENDING.equals(order.getOrderStatus())) {
+                return null;
+            }
+            return order;
+        } catch (JsonProcessingException e) {
+            log.error("Skipping unreadable order event at partition {} offset {}: {}",
+                    record.partition(), record.offset(), e.getMessage());
+            return null;
+        }
+    }
+}
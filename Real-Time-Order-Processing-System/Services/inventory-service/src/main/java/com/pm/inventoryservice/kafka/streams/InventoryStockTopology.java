@@ -0,0 +1,103 @@
+package com.pm.inventoryservice.kafka.streams;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.model.EventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Materializes the latest stock of every product from inventory-events into a RocksDB store.
+ * Only events keyed by product that carry a full inventory snapshot are folded in; which ones
+ * those are is read from the eventType header, so order events on the same topic are never
+ * parsed. A snapshot older than the stored one is dropped, since events for one product can
+ * be published out of commit order when two outbox batches overlap.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.streams.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryStockTopology {
+
+    public static final String STOCK_STORE = "inventory-stock-store";
+
+    private static final String EVENT_TYPE_HEADER = "eventType";
+    private static final Set<String> SNAPSHOT_EVENT_TYPES = Set.of(
+            EventType.INVENTORY_CREATED.name(),
+            EventType.INVENTORY_UPDATED.name(),
+            EventType.STOCK_ADDED.name(),
+            EventType.STOCK_ADJUSTED.name(),
+            EventType.LOW_STOCK_ALERT.name(),
+            EventType.STOCK_LEVEL_CHANGED.name());
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.streams.topic:inventory-events}")
+    private String topic;
+
+    @Bean
+    public KTable<String, InventoryResponseDTO> inventoryStockTable(StreamsBuilder streamsBuilder) {
+        Serde<InventoryResponseDTO> snapshotSerde = new JsonSerde<>(InventoryResponseDTO.class, objectMapper)
+                .noTypeInfo();
+
+        return streamsBuilder.stream(topic, Consumed.with(Serdes.String(), Serdes.String()))
+                .processValues(SnapshotParser::new)
+                .groupByKey(Grouped.with(Serdes.String(), snapshotSerde))
+                .reduce((current, next) -> isOlder(next, current) ? current : next,
+                        Materialized.<String, InventoryResponseDTO, KeyValueStore<Bytes, byte[]>>as(STOCK_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(snapshotSerde));
+    }
+
+    private static boolean isOlder(InventoryResponseDTO next, InventoryResponseDTO current) {
+        return next.getUpdatedAt() != null && current.getUpdatedAt() != null
+                && next.getUpdatedAt().isBefore(current.getUpdatedAt());
+    }
+
+    // Forwards parsed snapshots only; anything else is dropped without touching its payload
+    private final class SnapshotParser implements FixedKeyProcessor<String, String, InventoryResponseDTO> {
+
+        private FixedKeyProcessorContext<String, InventoryResponseDTO> context;
+
+        @Override
+        public void init(FixedKeyProcessorContext<String, InventoryResponseDTO> context) {
+            this.context = context;
+        }
+
+        @Override
+        public void process(FixedKeyRecord<String, String> record) {
+            Header header = record.headers().lastHeader(EVENT_TYPE_HEADER);
+            if (header == null || record.key() == null || record.value() == null
+                    || !SNAPSHOT_EVENT_TYPES.contains(new String(header.value(), StandardCharsets.UTF_8))) {
+                return;
+            }
+            try {
+                context.forward(record.withValue(objectMapper.readValue(record.value(), InventoryResponseDTO.class)));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable inventory snapshot for key {}: {}", record.key(), e.getMessage());
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@ public interface InventoryMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
+    @Mapping(target = "lowStock", ignore = true)
+    @Mapping(target = "shardCount", ignore = true)
     @Mapping(target = "quantityReserved", constant = "0")
     @Mapping(source = "initialQuantity", target = "quantityAvailable")
     Inventory toEntity(InventoryCreateRequestDTO dto);
@@ -0,0 +1,14 @@
+package com.pm.inventoryservice.mapper;
+
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.model.StockReservation;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+
+@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface StockReservationMapper {
+
+    @Mapping(source = "status", target = "reservationStatus")
+    StockReservationResponseDTO toResponseDTO(StockReservation reservation);
+}
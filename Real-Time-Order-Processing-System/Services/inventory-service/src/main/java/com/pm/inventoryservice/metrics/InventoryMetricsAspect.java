@@ -0,0 +1,122 @@
+package com.pm.inventoryservice.metrics;
+
+import com.pm.inventoryservice.exception.InvalidReservationStateException;
+import com.pm.inventoryservice.exception.InventoryNotFoundException;
+import com.pm.inventoryservice.exception.NotFoundException;
+import com.pm.inventoryservice.exception.ReservationEngineUnavailableException;
+import com.pm.inventoryservice.exception.ReservationNotFoundException;
+import com.pm.inventoryservice.exception.StockOperationException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public stock and reservation operation, tagged by operation and outcome, and
+ * counts the failures worth alerting on: insufficient-stock rejections and lock conflicts.
+ * Runs outside the transaction advice, so the timing includes the commit and conflicts that
+ * only surface at commit are classified too. Waits on the row-locking queries are timed
+ * separately as inventory.lock.wait.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class InventoryMetricsAspect {
+
+    // Insufficient stock is reported as a StockOperationException carrying this message
+    private static final String INSUFFICIENT_STOCK_PREFIX = "Insufficient stock";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.pm.inventoryservice.service.InventoryService.*(..)) || " +
+            "execution(public * com.pm.inventoryservice.service.ReservationBatchService.*(..)) || " +
+            "execution(public * com.pm.inventoryservice.service.BulkStockAdjustmentService.*(..))")
+    public Object timeOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            countFailure(operation, outcome);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("inventory.operation")
+                    .description("Inventory stock and reservation operations, including commit")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    @Around("execution(* com.pm.inventoryservice.repository.*Repository.*WithLock(..))")
+    public Object timeLockWait(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "acquired";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("inventory.lock.wait")
+                    .description("Time spent in row-locking queries, mostly waiting for the lock")
+                    .tag("query", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private void countFailure(String operation, String outcome) {
+        switch (outcome) {
+            case "insufficient_stock" -> meterRegistry.counter("inventory.rejections",
+                    "operation", operation, "reason", outcome).increment();
+            case "optimistic_lock", "lock_timeout", "deadlock" -> meterRegistry.counter("inventory.lock.conflicts",
+                    "operation", operation, "type", outcome).increment();
+            default -> {
+            }
+        }
+    }
+
+    private static String outcomeOf(Throwable e) {
+        if (e instanceof OptimisticLockingFailureException || e instanceof OptimisticLockException) {
+            return "optimistic_lock";
+        }
+        if (e instanceof CannotAcquireLockException || e instanceof LockTimeoutException) {
+            return "lock_timeout";
+        }
+        if (e instanceof PessimisticLockingFailureException || e instanceof PessimisticLockException) {
+            return "deadlock";
+        }
+        if (e instanceof StockOperationException) {
+            return e.getMessage() != null && e.getMessage().startsWith(INSUFFICIENT_STOCK_PREFIX)
+                    ? "insufficient_stock" : "rejected";
+        }
+        if (e instanceof InventoryNotFoundException || e instanceof ReservationNotFoundException
+                || e instanceof NotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof InvalidReservationStateException) {
+            return "invalid_state";
+        }
+        if (e instanceof ReservationEngineUnavailableException) {
+            return "unavailable";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,6 @@
+package com.pm.inventoryservice.model;
+
+public enum AllocationStrategy {
+    NEAREST_FIRST,
+    FEWEST_SPLITS
+}
@@ -14,5 +14,6 @@ public enum EventType {
     RESERVATION_EXPIRED,
     RESERVATION_CANCELLED,
     RESERVATION_CONFIRMED,
-    RESERVATION_RELEASED
+    RESERVATION_RELEASED,
+    STOCK_LEVEL_CHANGED
 }
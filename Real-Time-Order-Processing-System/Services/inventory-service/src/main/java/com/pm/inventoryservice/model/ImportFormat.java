@@ -0,0 +1,6 @@
+package com.pm.inventoryservice.model;
+
+public enum ImportFormat {
+    CSV,
+    NDJSON
+}
@@ -24,7 +24,9 @@ import java.util.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "inventory")
+@Table(name = "inventory", indexes = {
+        @Index(name = "idx_inventory_low_stock", columnList = "low_stock, quantityAvailable")
+})
 public class Inventory {
 
     @Id
@@ -69,7 +71,27 @@ public class Inventory {
     @Column(name = "deleted_at")
     private LocalDateTime deletedAt;
 
+    // Maintained on every write so low-stock lookups hit the index instead of scanning the catalog;
+    // rows written before the column existed are backfilled once with db/backfill-low-stock.sql
+    @Column(name = "low_stock", columnDefinition = "boolean default false not null")
+    private boolean lowStock;
+
+    // 0 = stock lives on this row; K > 0 = stock is split across K inventory_buckets rows and
+    // quantityAvailable/quantityReserved here are a periodically synced aggregate
+    @Column(name = "shard_count", columnDefinition = "integer default 0 not null")
+    private int shardCount;
+
     @Version
     @Column(name = "version", nullable = false)
     private Long version;
+
+    public boolean isSharded() {
+        return shardCount > 0;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void refreshLowStock() {
+        this.lowStock = quantityAvailable <= reorderLevel;
+    }
 }
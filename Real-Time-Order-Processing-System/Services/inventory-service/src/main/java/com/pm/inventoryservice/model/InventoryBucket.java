@@ -0,0 +1,47 @@
+package com.pm.inventoryservice.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One slice of a sharded product's stock. Reservations against a hot product update a
+ * single bucket row, so K buckets give K independent row locks instead of one.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "inventory_buckets",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_buckets_product_bucket", columnNames = {"product_id", "bucket_index"}))
+public class InventoryBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "bucket_id", nullable = false)
+    private UUID bucketId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "bucket_index", nullable = false)
+    private int bucketIndex;
+
+    @Min(0)
+    @Column(name = "quantity_available", nullable = false)
+    private int quantityAvailable;
+
+    @Min(0)
+    @Column(name = "quantity_reserved", nullable = false)
+    private int quantityReserved;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,7 @@
+package com.pm.inventoryservice.model;
+
+public enum InventoryCommandType {
+    RESERVE,
+    CONFIRM,
+    RELEASE
+}
@@ -0,0 +1,52 @@
+package com.pm.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "inventory_snapshots", indexes = {
+        @Index(name = "idx_inventory_snapshots_inventory_position", columnList = "inventory_id, last_movement_at")
+})
+public class InventorySnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "snapshot_id", nullable = false)
+    private UUID snapshotId;
+
+    @Column(name = "inventory_id", nullable = false)
+    private UUID inventoryId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "quantity_available", nullable = false)
+    private int quantityAvailable;
+
+    @Column(name = "quantity_reserved", nullable = false)
+    private int quantityReserved;
+
+    // Every movement created at or before this instant is folded into the snapshot
+    @Column(name = "last_movement_at", nullable = false)
+    private LocalDateTime lastMovementAt;
+
+    @Column(name = "movement_count", nullable = false)
+    private long movementCount;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -13,5 +13,6 @@ public enum MovementType {
     INVENTORY_UPDATED,
     STOCK_ADDED,
     INVENTORY_CREATED,
-    STOCK_REMOVED
+    STOCK_REMOVED,
+    RESERVATION_EXPIRED
 }
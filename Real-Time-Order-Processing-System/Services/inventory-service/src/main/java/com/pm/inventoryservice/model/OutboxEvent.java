@@ -34,7 +34,7 @@ public class OutboxEvent {
     @Column(name = "eventType", nullable = false)
     private EventType eventType;
 
-    @Column(name = "payload", nullable = false)
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
     private String payload;
 
     @Column(name = "published", nullable = false)
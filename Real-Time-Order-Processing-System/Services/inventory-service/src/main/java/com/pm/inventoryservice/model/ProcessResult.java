@@ -3,5 +3,6 @@ package com.pm.inventoryservice.model;
 public enum ProcessResult {
     SUCCESS,
     FAILED,
-    MOVED_TO_DLQ
+    MOVED_TO_DLQ,
+    SUPERSEDED
 }
@@ -0,0 +1,7 @@
+package com.pm.inventoryservice.model;
+
+public enum ReservationEngineMode {
+    DATABASE,
+    DRAINING,
+    REDIS
+}
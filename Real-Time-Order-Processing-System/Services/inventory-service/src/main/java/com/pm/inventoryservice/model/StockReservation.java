@@ -19,7 +19,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @Table(name = "stock_reservation",
-uniqueConstraints = @UniqueConstraint(columnNames = {"order_id", "product_id"}))
+uniqueConstraints = @UniqueConstraint(columnNames = {"order_id", "product_id", "warehouse_key"}))
 public class StockReservation {
 
     @Id
@@ -27,10 +27,10 @@ public class StockReservation {
     @Column(name = "reservation_id", nullable = false, unique = true)
     private UUID reservationId;
 
-    @Column(name = "order_id", nullable = false, unique = true)
+    @Column(name = "order_id", nullable = false)
     private UUID orderId;
 
-    @Column(name = "product_id", nullable = false, unique = true)
+    @Column(name = "product_id", nullable = false)
     private UUID productId;
 
     @Min(1)
@@ -54,8 +54,26 @@ public class StockReservation {
     @Column(name = "released_at")
     private LocalDateTime releasedAt;
 
+    // Bucket the quantity was taken from when the product is sharded
+    @Column(name = "bucket_index")
+    private Integer bucketIndex;
+
+    // Warehouse the quantity is held in; a product split across warehouses has one row per warehouse
+    @Column(name = "warehouse_code")
+    private String warehouseCode;
+
+    // Non-null stand-in for warehouse_code in the unique key: NULLs are distinct in a unique
+    // constraint, so a key on warehouse_code would not catch duplicate plain reservations
+    @Column(name = "warehouse_key", columnDefinition = "varchar(255) default '' not null")
+    private String warehouseKey;
+
     @Version
     @Column(name = "version", nullable = false)
     private Long version;
 
+    @PrePersist
+    @PreUpdate
+    void refreshWarehouseKey() {
+        this.warehouseKey = warehouseCode != null ? warehouseCode : "";
+    }
 }
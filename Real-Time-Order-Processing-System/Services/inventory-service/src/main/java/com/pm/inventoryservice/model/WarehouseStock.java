@@ -0,0 +1,47 @@
+package com.pm.inventoryservice.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stock of one product held in one warehouse. For a product with warehouse rows the
+ * inventory row carries the sum over its warehouses.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "warehouse_stock",
+        uniqueConstraints = @UniqueConstraint(name = "uk_warehouse_stock_product_warehouse", columnNames = {"product_id", "warehouse_code"}))
+public class WarehouseStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "warehouse_stock_id", nullable = false)
+    private UUID warehouseStockId;
+
+    @Column(name = "product_id", nullable = false)
+    private UUID productId;
+
+    @Column(name = "warehouse_code", nullable = false)
+    private String warehouseCode;
+
+    @Min(0)
+    @Column(name = "quantity_available", nullable = false)
+    private int quantityAvailable;
+
+    @Min(0)
+    @Column(name = "quantity_reserved", nullable = false)
+    private int quantityReserved;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
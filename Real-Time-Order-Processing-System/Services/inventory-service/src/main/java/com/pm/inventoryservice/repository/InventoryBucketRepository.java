@@ -0,0 +1,72 @@
+package com.pm.inventoryservice.repository;
+
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
+import com.pm.inventoryservice.model.InventoryBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InventoryBucketRepository extends JpaRepository<InventoryBucket, UUID> {
+
+    List<InventoryBucket> findByProductIdOrderByBucketIndex(UUID productId);
+
+    // Summed in the database: bucket entities already in the persistence context go stale after the bulk updates below
+    @Query("SELECT new com.pm.inventoryservice.dto.response.StockTotalsDTO(" +
+            "CAST(COALESCE(SUM(b.quantityAvailable), 0) AS Integer), " +
+            "CAST(COALESCE(SUM(b.quantityReserved), 0) AS Integer), CAST(COUNT(b) AS Integer)) " +
+            "FROM InventoryBucket b WHERE b.productId = :productId")
+    StockTotalsDTO sumByProductId(@Param("productId") UUID productId);
+
+    // Whole-product operations lock buckets in index order, the same order everywhere
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM InventoryBucket b WHERE b.productId = :productId ORDER BY b.bucketIndex")
+    List<InventoryBucket> findByProductIdWithLock(@Param("productId") UUID productId);
+
+    // Single conditional UPDATE: takes only this bucket's row lock and fails instead of going negative
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE InventoryBucket b SET b.quantityAvailable = b.quantityAvailable - :quantity, " +
+            "b.quantityReserved = b.quantityReserved + :quantity, b.updatedAt = :time " +
+            "WHERE b.productId = :productId AND b.bucketIndex = :bucketIndex AND b.quantityAvailable >= :quantity")
+    int tryReserve(@Param("productId") UUID productId,
+                   @Param("bucketIndex") int bucketIndex,
+                   @Param("quantity") int quantity,
+                   @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.quantityReserved = b.quantityReserved - :quantity, b.updatedAt = :time " +
+            "WHERE b.productId = :productId AND b.bucketIndex = :bucketIndex")
+    int confirmReserved(@Param("productId") UUID productId,
+                        @Param("bucketIndex") int bucketIndex,
+                        @Param("quantity") int quantity,
+                        @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.quantityAvailable = b.quantityAvailable + :quantity, " +
+            "b.quantityReserved = b.quantityReserved - :quantity, b.updatedAt = :time " +
+            "WHERE b.productId = :productId AND b.bucketIndex = :bucketIndex")
+    int releaseReserved(@Param("productId") UUID productId,
+                        @Param("bucketIndex") int bucketIndex,
+                        @Param("quantity") int quantity,
+                        @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("UPDATE InventoryBucket b SET b.quantityAvailable = b.quantityAvailable + :quantity, b.updatedAt = :time " +
+            "WHERE b.productId = :productId AND b.bucketIndex = :bucketIndex")
+    int addAvailable(@Param("productId") UUID productId,
+                     @Param("bucketIndex") int bucketIndex,
+                     @Param("quantity") int quantity,
+                     @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("DELETE FROM InventoryBucket b WHERE b.productId = :productId")
+    int deleteByProductId(@Param("productId") UUID productId);
+}
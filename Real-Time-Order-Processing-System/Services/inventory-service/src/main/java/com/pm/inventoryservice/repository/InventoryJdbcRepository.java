@@ -0,0 +1,217 @@
+package com.pm.inventoryservice.repository;
+
+import com.pm.inventoryservice.dto.ledger.InventoryBalanceDTO;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.model.Inventory;
+import com.pm.inventoryservice.model.OutboxEvent;
+import com.pm.inventoryservice.model.StockMovement;
+import com.pm.inventoryservice.model.StockReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Plain JDBC batch writes for append-only inventory tables, used where going through the
+ * persistence context would cost one statement per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryJdbcRepository {
+
+    private static final String INSERT_MOVEMENT_SQL = "INSERT INTO stock_movements " +
+            "(movement_id, inventory_id, movement_type, quantity, previous_quantity, new_quantity, " +
+            "reference_id, reference_type, reason, created_at, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_INVENTORY_SQL = "INSERT INTO inventory " +
+            "(inventory_id, product_id, product_name, sku, quantity_available, quantity_reserved, reorder_level, " +
+            "reorder_quantity, warehouse_location, created_at, updated_at, low_stock, shard_count, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_SQL = "INSERT INTO outbox_events " +
+            "(event_id, aggregate_id, aggregate_type, event_type, payload, published, retry_count, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_AVAILABLE_SQL = "UPDATE inventory SET quantity_available = ?, " +
+            "low_stock = (? <= reorder_level), updated_at = ?, version = version + 1 WHERE inventory_id = ?";
+
+    private static final String INSERT_RESERVATION_SQL = "INSERT INTO stock_reservation " +
+            "(reservation_id, order_id, product_id, quantity_reserved, status, expires_at, created_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String APPLY_STOCK_DELTA_SQL = "UPDATE inventory SET " +
+            "quantity_available = quantity_available + ?, quantity_reserved = quantity_reserved + ?, " +
+            "low_stock = (quantity_available + ? <= reorder_level), updated_at = ?, version = version + 1 " +
+            "WHERE product_id = ?";
+
+    // Sharded products keep their live quantities in the buckets, so those win over the row's synced aggregate
+    private static final String SELECT_STOCK_LEVELS_SQL = "SELECT i.inventory_id, i.product_id, i.product_name, i.sku, " +
+            "i.reorder_level, i.warehouse_location, i.created_at, i.updated_at, i.shard_count, " +
+            "i.quantity_available, i.quantity_reserved, SUM(b.quantity_available) AS bucket_available, " +
+            "SUM(b.quantity_reserved) AS bucket_reserved, MAX(b.updated_at) AS bucket_updated_at " +
+            "FROM inventory i LEFT JOIN inventory_buckets b ON b.product_id = i.product_id " +
+            "WHERE i.inventory_id IN (%s) " +
+            "GROUP BY i.inventory_id, i.product_id, i.product_name, i.sku, i.reorder_level, i.warehouse_location, " +
+            "i.created_at, i.updated_at, i.shard_count, i.quantity_available, i.quantity_reserved";
+
+    // Soft-deleted rows are included so point-in-time reads still find products deleted since
+    private static final String SELECT_BALANCES_INCLUDING_DELETED_SQL = "SELECT inventory_id, product_id, " +
+            "quantity_available, quantity_reserved FROM inventory WHERE inventory_id > ? ORDER BY inventory_id LIMIT ?";
+
+    private static final String SELECT_INVENTORY_ID_INCLUDING_DELETED_SQL =
+            "SELECT inventory_id FROM inventory WHERE product_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<InventoryBalanceDTO> findBalancesIncludingDeletedAfter(UUID after, int limit) {
+        return jdbcTemplate.query(SELECT_BALANCES_INCLUDING_DELETED_SQL, (rs, rowNum) -> InventoryBalanceDTO.builder()
+                .inventoryId(rs.getObject("inventory_id", UUID.class))
+                .productId(rs.getObject("product_id", UUID.class))
+                .quantityAvailable(rs.getInt("quantity_available"))
+                .quantityReserved(rs.getInt("quantity_reserved"))
+                .build(), after, limit);
+    }
+
+    public Optional<UUID> findInventoryIdIncludingDeleted(UUID productId) {
+        return jdbcTemplate.query(SELECT_INVENTORY_ID_INCLUDING_DELETED_SQL,
+                (rs, rowNum) -> rs.getObject("inventory_id", UUID.class), productId).stream().findFirst();
+    }
+
+    public List<InventoryResponseDTO> findStockLevels(Collection<UUID> inventoryIds) {
+        if (inventoryIds.isEmpty()) {
+            return List.of();
+        }
+        String sql = String.format(SELECT_STOCK_LEVELS_SQL, String.join(", ", Collections.nCopies(inventoryIds.size(), "?")));
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            boolean sharded = rs.getInt("shard_count") > 0;
+            LocalDateTime updatedAt = rs.getObject("updated_at", LocalDateTime.class);
+            LocalDateTime bucketUpdatedAt = rs.getObject("bucket_updated_at", LocalDateTime.class);
+            if (sharded && bucketUpdatedAt != null && bucketUpdatedAt.isAfter(updatedAt)) {
+                updatedAt = bucketUpdatedAt;
+            }
+            return InventoryResponseDTO.builder()
+                    .inventoryId(rs.getObject("inventory_id", UUID.class))
+                    .productId(rs.getObject("product_id", UUID.class))
+                    .productName(rs.getString("product_name"))
+                    .sku(rs.getString("sku"))
+                    .quantityAvailable(sharded ? rs.getInt("bucket_available") : rs.getInt("quantity_available"))
+                    .quantityReserved(sharded ? rs.getInt("bucket_reserved") : rs.getInt("quantity_reserved"))
+                    .reorderLevel(rs.getInt("reorder_level"))
+                    .warehouseLocation(rs.getString("warehouse_location"))
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .updatedAt(updatedAt)
+                    .build();
+        }, inventoryIds.toArray());
+    }
+
+    public void batchInsertMovements(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, movements, movements.size(), (ps, movement) -> {
+            ps.setObject(1, movement.getMovementId());
+            ps.setObject(2, movement.getInventoryId());
+            ps.setString(3, movement.getMovementType().name());
+            ps.setInt(4, movement.getQuantity());
+            ps.setInt(5, movement.getPreviousQuantity());
+            ps.setInt(6, movement.getNewQuantity());
+            ps.setObject(7, movement.getReferenceId());
+            ps.setString(8, movement.getReferenceType());
+            ps.setString(9, movement.getReason());
+            ps.setObject(10, movement.getCreatedAt());
+            ps.setString(11, movement.getCreatedBy());
+        });
+    }
+
+    public void batchInsertInventory(List<Inventory> inventories) {
+        if (inventories.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_INVENTORY_SQL, inventories, inventories.size(), (ps, inventory) -> {
+            ps.setObject(1, inventory.getInventoryId());
+            ps.setObject(2, inventory.getProductId());
+            ps.setString(3, inventory.getProductName());
+            ps.setString(4, inventory.getSku());
+            ps.setInt(5, inventory.getQuantityAvailable());
+            ps.setInt(6, inventory.getQuantityReserved());
+            ps.setInt(7, inventory.getReorderLevel());
+            ps.setInt(8, inventory.getReorderQuantity());
+            ps.setString(9, inventory.getWarehouseLocation());
+            ps.setObject(10, inventory.getCreatedAt());
+            ps.setObject(11, inventory.getUpdatedAt());
+            ps.setBoolean(12, inventory.isLowStock());
+            ps.setInt(13, inventory.getShardCount());
+            ps.setLong(14, inventory.getVersion());
+        });
+    }
+
+    public void batchInsertOutboxEvents(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, events, events.size(), (ps, event) -> {
+            ps.setObject(1, event.getEventId());
+            ps.setObject(2, event.getAggregateId());
+            ps.setString(3, event.getAggregateType());
+            ps.setString(4, event.getEventType().name());
+            ps.setString(5, event.getPayload());
+            ps.setBoolean(6, event.isPublished());
+            ps.setInt(7, event.getRetryCount());
+            ps.setObject(8, event.getCreatedAt());
+        });
+    }
+
+    public void batchInsertReservations(List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION_SQL, reservations, reservations.size(), (ps, reservation) -> {
+            ps.setObject(1, reservation.getReservationId());
+            ps.setObject(2, reservation.getOrderId());
+            ps.setObject(3, reservation.getProductId());
+            ps.setInt(4, reservation.getQuantityReserved());
+            ps.setString(5, reservation.getStatus().name());
+            ps.setObject(6, reservation.getExpiresAt());
+            ps.setObject(7, reservation.getCreatedAt());
+            ps.setLong(8, 0L);
+        });
+    }
+
+    // Relative updates keyed by product, {availableDelta, reservedDelta}; callers pass a sorted map to keep lock order stable
+    public void batchApplyStockDeltas(Map<UUID, int[]> deltasByProductId, LocalDateTime time) {
+        if (deltasByProductId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, int[]>> rows = new ArrayList<>(deltasByProductId.entrySet());
+        jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getValue()[0]);
+            ps.setInt(2, row.getValue()[1]);
+            ps.setInt(3, row.getValue()[0]);
+            ps.setObject(4, time);
+            ps.setObject(5, row.getKey());
+        });
+    }
+
+    // Callers hold the row locks; one statement per row, sent as a single batch
+    public void batchUpdateAvailable(Map<UUID, Integer> availableByInventoryId, LocalDateTime time) {
+        if (availableByInventoryId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<UUID, Integer>> rows = new ArrayList<>(availableByInventoryId.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_AVAILABLE_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setInt(1, row.getValue());
+            ps.setInt(2, row.getValue());
+            ps.setObject(3, time);
+            ps.setObject(4, row.getKey());
+        });
+    }
+}
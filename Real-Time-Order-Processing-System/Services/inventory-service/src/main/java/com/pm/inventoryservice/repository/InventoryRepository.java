@@ -1,15 +1,24 @@
 package com.pm.inventoryservice.repository;
 
+import com.pm.inventoryservice.dto.ledger.InventoryBalanceDTO;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.dto.response.StockCheckResponseDTO;
 import com.pm.inventoryservice.model.Inventory;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -24,7 +33,82 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     boolean existsBySku(String sku);
     List<Inventory> findByQuantityAvailableLessThanEqual(Integer quantity);
 
+    // Rows are locked in productId order so concurrent batches cannot deadlock on each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.productId")
+    List<Inventory> findByProductIdInWithLock(@Param("productIds") Collection<UUID> productIds);
+
+    List<Inventory> findByProductIdIn(Collection<UUID> productIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable + :quantity, " +
+            "i.quantityReserved = i.quantityReserved - :quantity, " +
+            "i.lowStock = CASE WHEN i.quantityAvailable + :quantity <= i.reorderLevel THEN true ELSE false END, " +
+            "i.updatedAt = :time, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId")
+    int releaseReservedStock(@Param("productId") UUID productId,
+                             @Param("quantity") int quantity,
+                             @Param("time") LocalDateTime time);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityReserved = i.quantityReserved - :quantity, " +
+            "i.updatedAt = :time, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId")
+    int confirmReservedStock(@Param("productId") UUID productId,
+                             @Param("quantity") int quantity,
+                             @Param("time") LocalDateTime time);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantityAvailable = i.quantityAvailable + :delta, " +
+            "i.lowStock = CASE WHEN i.quantityAvailable + :delta <= i.reorderLevel THEN true ELSE false END, " +
+            "i.updatedAt = :time, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId")
+    int addAvailableStock(@Param("productId") UUID productId,
+                          @Param("delta") int delta,
+                          @Param("time") LocalDateTime time);
+
+    @Query("SELECT i.productId FROM Inventory i WHERE i.productId IN :productIds")
+    List<UUID> findExistingProductIds(@Param("productIds") Collection<UUID> productIds);
+
+    // Native so soft-deleted rows are included; their SKUs still hold the unique constraint
+    @Query(value = "SELECT sku FROM inventory WHERE sku IN (:skus)", nativeQuery = true)
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    @Query("SELECT i.productId FROM Inventory i WHERE i.shardCount > 0")
+    List<UUID> findShardedProductIds();
+
+    @Query("SELECT i.productId FROM Inventory i WHERE i.productId IN :productIds AND i.shardCount > 0")
+    Set<UUID> findShardedProductIdsIn(@Param("productIds") Collection<UUID> productIds);
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quantityAvailable = :available, i.quantityReserved = :reserved, " +
+            "i.lowStock = CASE WHEN :available <= i.reorderLevel THEN true ELSE false END, " +
+            "i.updatedAt = :time, i.version = i.version + 1 " +
+            "WHERE i.productId = :productId AND i.shardCount > 0 " +
+            "AND (i.quantityAvailable <> :available OR i.quantityReserved <> :reserved)")
+    int syncShardedTotals(@Param("productId") UUID productId,
+                          @Param("available") int available,
+                          @Param("reserved") int reserved,
+                          @Param("time") LocalDateTime time);
+
+    // Read endpoints select straight into their DTOs, so no entity is instantiated, snapshotted or tracked
+    @Query("SELECT new com.pm.inventoryservice.dto.response.InventoryResponseDTO(i.inventoryId, i.productId, " +
+            "i.productName, i.sku, i.quantityAvailable, i.quantityReserved, i.reorderLevel, i.warehouseLocation, " +
+            "i.createdAt, i.updatedAt) FROM Inventory i WHERE i.sku = :sku")
+    Optional<InventoryResponseDTO> findResponseBySku(@Param("sku") String sku);
+
+    @Query(value = "SELECT new com.pm.inventoryservice.dto.response.InventoryResponseDTO(i.inventoryId, i.productId, " +
+            "i.productName, i.sku, i.quantityAvailable, i.quantityReserved, i.reorderLevel, i.warehouseLocation, " +
+            "i.createdAt, i.updatedAt) FROM Inventory i",
+            countQuery = "SELECT COUNT(i) FROM Inventory i")
+    Page<InventoryResponseDTO> findAllResponses(Pageable pageable);
+
+    @Query(value = "SELECT new com.pm.inventoryservice.dto.response.StockCheckResponseDTO(i.productId, false, " +
+            "i.quantityAvailable, i.reorderQuantity, i.quantityReserved) FROM Inventory i WHERE i.lowStock = true",
+            countQuery = "SELECT COUNT(i) FROM Inventory i WHERE i.lowStock = true")
+    Page<StockCheckResponseDTO> findLowStockChecks(Pageable pageable);
 
-    
-    
+    @Query("SELECT new com.pm.inventoryservice.dto.ledger.InventoryBalanceDTO(i.inventoryId, i.productId, i.quantityAvailable, i.quantityReserved) " +
+            "FROM Inventory i WHERE i.inventoryId > :after ORDER BY i.inventoryId")
+    List<InventoryBalanceDTO> findBalancesAfter(@Param("after") UUID after, Pageable pageable);
 }
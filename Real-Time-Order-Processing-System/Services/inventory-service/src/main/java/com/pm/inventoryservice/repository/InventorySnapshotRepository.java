@@ -0,0 +1,16 @@
+package com.pm.inventoryservice.repository;
+
+import com.pm.inventoryservice.model.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, UUID> {
+
+    Optional<InventorySnapshot> findFirstByInventoryIdAndLastMovementAtLessThanEqualOrderByLastMovementAtDesc(
+            UUID inventoryId, LocalDateTime position);
+}
@@ -1,14 +1,32 @@
 package com.pm.inventoryservice.repository;
 
 import com.pm.inventoryservice.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
-    List<OutboxEvent> findTop100ByPublishedFalseOrderByCreatedAt();
+    @Query("SELECT e FROM OutboxEvent e WHERE e.published = false ORDER BY e.createdAt")
+    List<OutboxEvent> findUnpublished(Pageable pageable);
+
     void deleteByAggregateIdAndPublishedFalse(UUID aggregateId);
+
+    long countByPublishedFalse();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.published = true, e.publishedAt = :time WHERE e.eventId IN :eventIds")
+    int markPublished(@Param("eventIds") Collection<UUID> eventIds, @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.retryCount = e.retryCount + 1 WHERE e.eventId IN :eventIds")
+    int incrementRetryCount(@Param("eventIds") Collection<UUID> eventIds);
 }
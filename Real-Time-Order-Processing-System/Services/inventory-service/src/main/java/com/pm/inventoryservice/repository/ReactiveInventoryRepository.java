@@ -0,0 +1,89 @@
+package com.pm.inventoryservice.repository;
+
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import io.r2dbc.spi.Readable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Non-blocking reads of inventory rows over R2DBC for the reactive availability API. Rows
+ * are read with their bucket totals in the same statement, and soft-deleted rows are
+ * filtered here since @SQLRestriction only applies to JPA.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveInventoryRepository {
+
+    private static final String SELECT_STOCK_SQL = "SELECT i.inventory_id, i.product_id, i.product_name, i.sku, " +
+            "i.reorder_level, i.warehouse_location, i.created_at, i.updated_at, i.shard_count, " +
+            "i.quantity_available, i.quantity_reserved, SUM(b.quantity_available) AS bucket_available, " +
+            "SUM(b.quantity_reserved) AS bucket_reserved " +
+            "FROM inventory i LEFT JOIN inventory_buckets b ON b.product_id = i.product_id " +
+            "WHERE i.deleted_at IS NULL AND %s " +
+            "GROUP BY i.inventory_id, i.product_id, i.product_name, i.sku, i.reorder_level, i.warehouse_location, " +
+            "i.created_at, i.updated_at, i.shard_count, i.quantity_available, i.quantity_reserved";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<StockRow> findByProductId(UUID productId) {
+        return databaseClient.sql(String.format(SELECT_STOCK_SQL, "i.product_id = :productId"))
+                .bind("productId", productId)
+                .map(ReactiveInventoryRepository::toStockRow)
+                .one();
+    }
+
+    public Mono<StockRow> findBySku(String sku) {
+        return databaseClient.sql(String.format(SELECT_STOCK_SQL, "i.sku = :sku"))
+                .bind("sku", sku)
+                .map(ReactiveInventoryRepository::toStockRow)
+                .one();
+    }
+
+    public Flux<StockRow> findByProductIdIn(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql(String.format(SELECT_STOCK_SQL, "i.product_id IN (:productIds)"))
+                .bind("productIds", productIds)
+                .map(ReactiveInventoryRepository::toStockRow)
+                .all();
+    }
+
+    // Sharded products keep their live quantities in the buckets, so those win over the row's synced aggregate
+    private static StockRow toStockRow(Readable row) {
+        boolean sharded = row.get("shard_count", Integer.class) > 0;
+        Long bucketAvailable = row.get("bucket_available", Long.class);
+        Long bucketReserved = row.get("bucket_reserved", Long.class);
+        InventoryResponseDTO inventory = InventoryResponseDTO.builder()
+                .inventoryId(row.get("inventory_id", UUID.class))
+                .productId(row.get("product_id", UUID.class))
+                .productName(row.get("product_name", String.class))
+                .sku(row.get("sku", String.class))
+                .quantityAvailable(sharded && bucketAvailable != null
+                        ? bucketAvailable.intValue() : row.get("quantity_available", Integer.class))
+                .quantityReserved(sharded && bucketReserved != null
+                        ? bucketReserved.intValue() : row.get("quantity_reserved", Integer.class))
+                .reorderLevel(row.get("reorder_level", Integer.class))
+                .warehouseLocation(row.get("warehouse_location", String.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+        return new StockRow(inventory, sharded);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class StockRow {
+        private InventoryResponseDTO inventory;
+        private boolean sharded;
+    }
+}
@@ -1,7 +1,11 @@
 package com.pm.inventoryservice.repository;
 
+import com.pm.inventoryservice.dto.ledger.LedgerEntryDTO;
 import com.pm.inventoryservice.model.StockMovement;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -16,4 +20,43 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, UU
     List<StockMovement> findByReferenceIdAndReferenceType(UUID refId, String refType);
 
     List<StockMovement> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT m FROM StockMovement m WHERE m.inventoryId = :inventoryId " +
+            "AND m.createdAt >= :from AND m.createdAt < :to " +
+            "ORDER BY m.createdAt DESC, m.movementId DESC")
+    List<StockMovement> findFirstPage(@Param("inventoryId") UUID inventoryId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      Pageable pageable);
+
+    @Query("SELECT m FROM StockMovement m WHERE m.inventoryId = :inventoryId " +
+            "AND m.createdAt >= :from AND m.createdAt < :to " +
+            "AND (m.createdAt < :cursorCreatedAt OR (m.createdAt = :cursorCreatedAt AND m.movementId < :cursorMovementId)) " +
+            "ORDER BY m.createdAt DESC, m.movementId DESC")
+    List<StockMovement> findPageAfter(@Param("inventoryId") UUID inventoryId,
+                                      @Param("from") LocalDateTime from,
+                                      @Param("to") LocalDateTime to,
+                                      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                      @Param("cursorMovementId") UUID cursorMovementId,
+                                      Pageable pageable);
+
+    @Query("SELECT new com.pm.inventoryservice.dto.ledger.LedgerEntryDTO(m.movementId, m.movementType, m.quantity, m.newQuantity, m.createdAt) " +
+            "FROM StockMovement m WHERE m.inventoryId = :inventoryId " +
+            "AND m.createdAt > :after AND m.createdAt <= :upTo " +
+            "ORDER BY m.createdAt, m.movementId")
+    List<LedgerEntryDTO> findLedgerEntries(@Param("inventoryId") UUID inventoryId,
+                                           @Param("after") LocalDateTime after,
+                                           @Param("upTo") LocalDateTime upTo,
+                                           Pageable pageable);
+
+    @Query("SELECT new com.pm.inventoryservice.dto.ledger.LedgerEntryDTO(m.movementId, m.movementType, m.quantity, m.newQuantity, m.createdAt) " +
+            "FROM StockMovement m WHERE m.inventoryId = :inventoryId " +
+            "AND (m.createdAt > :cursorCreatedAt OR (m.createdAt = :cursorCreatedAt AND m.movementId > :cursorMovementId)) " +
+            "AND m.createdAt <= :upTo " +
+            "ORDER BY m.createdAt, m.movementId")
+    List<LedgerEntryDTO> findLedgerEntriesAfter(@Param("inventoryId") UUID inventoryId,
+                                                @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                @Param("cursorMovementId") UUID cursorMovementId,
+                                                @Param("upTo") LocalDateTime upTo,
+                                                Pageable pageable);
 }
@@ -2,11 +2,19 @@ package com.pm.inventoryservice.repository;
 
 import com.pm.inventoryservice.model.StockReservation;
 import com.pm.inventoryservice.model.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -14,6 +22,15 @@ public interface StockReservationRepository extends JpaRepository<StockReservati
     
     List<StockReservation> findByOrderId(UUID orderId);
 
+    boolean existsByOrderId(UUID orderId);
+
+    @Query("SELECT r.reservationId FROM StockReservation r WHERE r.reservationId IN :reservationIds")
+    Set<UUID> findExistingReservationIds(@Param("reservationIds") Collection<UUID> reservationIds);
+
+    List<StockReservation> findByStatus(ReservationStatus status);
+
+    long countByStatus(ReservationStatus status);
+
     List<StockReservation> findByStatusAndExpiresAtBefore(ReservationStatus status, LocalDateTime time);
 
     List<StockReservation> findByStatusAndExpiresAt(ReservationStatus status, LocalDateTime time);
@@ -22,5 +39,37 @@ public interface StockReservationRepository extends JpaRepository<StockReservati
 
     StockReservation findByOrderIdAndProductId(UUID orderId, UUID productId);
 
-    List<StockReservation> findByAllByOrderId(UUID orderId);
+    // Keyset paging on orderId, so orders that failed to expire are passed over instead of fetched again
+    @Query("SELECT DISTINCT r.orderId FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :time " +
+            "AND r.orderId > :after ORDER BY r.orderId")
+    List<UUID> findOrderIdsByStatusAndExpiresAtBefore(@Param("status") ReservationStatus status,
+                                                      @Param("time") LocalDateTime time,
+                                                      @Param("after") UUID after,
+                                                      Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId IN :orderIds AND r.status = :status ORDER BY r.orderId, r.productId")
+    List<StockReservation> findByOrderIdInAndStatusWithLock(@Param("orderIds") Collection<UUID> orderIds,
+                                                            @Param("status") ReservationStatus status);
+
+    // Every status is loaded so settled orders can be reported, not just skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId IN :orderIds ORDER BY r.orderId, r.productId")
+    List<StockReservation> findByOrderIdInWithLock(@Param("orderIds") Collection<UUID> orderIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :newStatus, r.releasedAt = :time, r.version = r.version + 1 " +
+            "WHERE r.reservationId IN :reservationIds AND r.status = :currentStatus")
+    int updateReleasedStatus(@Param("reservationIds") Collection<UUID> reservationIds,
+                             @Param("currentStatus") ReservationStatus currentStatus,
+                             @Param("newStatus") ReservationStatus newStatus,
+                             @Param("time") LocalDateTime time);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :newStatus, r.confirmedAt = :time, r.version = r.version + 1 " +
+            "WHERE r.reservationId IN :reservationIds AND r.status = :currentStatus")
+    int updateConfirmedStatus(@Param("reservationIds") Collection<UUID> reservationIds,
+                              @Param("currentStatus") ReservationStatus currentStatus,
+                              @Param("newStatus") ReservationStatus newStatus,
+                              @Param("time") LocalDateTime time);
 }
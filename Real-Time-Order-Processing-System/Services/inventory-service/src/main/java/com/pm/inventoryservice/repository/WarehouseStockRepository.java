@@ -0,0 +1,55 @@
+package com.pm.inventoryservice.repository;
+
+import com.pm.inventoryservice.model.WarehouseStock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, UUID> {
+
+    List<WarehouseStock> findByProductId(UUID productId);
+
+    boolean existsByProductId(UUID productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WarehouseStock s WHERE s.productId = :productId AND s.warehouseCode = :warehouseCode")
+    Optional<WarehouseStock> findByProductIdAndWarehouseCodeWithLock(@Param("productId") UUID productId,
+                                                                      @Param("warehouseCode") String warehouseCode);
+
+    // Guarded so a stale allocation fails instead of overdrawing the warehouse
+    @Modifying
+    @Query("UPDATE WarehouseStock s SET s.quantityAvailable = s.quantityAvailable - :quantity, " +
+            "s.quantityReserved = s.quantityReserved + :quantity, s.updatedAt = :time " +
+            "WHERE s.productId = :productId AND s.warehouseCode = :warehouseCode AND s.quantityAvailable >= :quantity")
+    int tryReserve(@Param("productId") UUID productId,
+                   @Param("warehouseCode") String warehouseCode,
+                   @Param("quantity") int quantity,
+                   @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("UPDATE WarehouseStock s SET s.quantityReserved = s.quantityReserved - :quantity, s.updatedAt = :time " +
+            "WHERE s.productId = :productId AND s.warehouseCode = :warehouseCode")
+    int confirmReserved(@Param("productId") UUID productId,
+                        @Param("warehouseCode") String warehouseCode,
+                        @Param("quantity") int quantity,
+                        @Param("time") LocalDateTime time);
+
+    @Modifying
+    @Query("UPDATE WarehouseStock s SET s.quantityAvailable = s.quantityAvailable + :quantity, " +
+            "s.quantityReserved = s.quantityReserved - :quantity, s.updatedAt = :time " +
+            "WHERE s.productId = :productId AND s.warehouseCode = :warehouseCode")
+    int releaseReserved(@Param("productId") UUID productId,
+                        @Param("warehouseCode") String warehouseCode,
+                        @Param("quantity") int quantity,
+                        @Param("time") LocalDateTime time);
+}
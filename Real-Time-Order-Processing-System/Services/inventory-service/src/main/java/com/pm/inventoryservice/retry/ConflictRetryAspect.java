@@ -0,0 +1,89 @@
+package com.pm.inventoryservice.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Applies {@link RetryOnConflict}. Ordered just inside the metrics aspect and outside the
+ * transaction advice, so every attempt gets a new transaction and persistence context while
+ * inventory.operation still records one call with its final outcome and total latency.
+ * Backoff is exponential with full jitter so that the writers that collided do not collide
+ * again on the next attempt. Deadlock victims and lock timeouts are retried the same way, as
+ * the rolled-back transaction holds no locks and the next attempt starts clean.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+@Slf4j
+public class ConflictRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getName();
+        int maxAttempts = Math.max(1, retryOnConflict.maxAttempts());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt > 1) {
+                    count(operation, "recovered");
+                }
+                return result;
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    count(operation, "exhausted");
+                    log.warn("{} still conflicting after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw e;
+                }
+                count(operation, "retried");
+                log.debug("{} hit a conflict on attempt {}, retrying", operation, attempt);
+                backoff(retryOnConflict, attempt, e);
+            }
+        }
+    }
+
+    private static boolean isConflict(Throwable e) {
+        return e instanceof OptimisticLockingFailureException || e instanceof OptimisticLockException
+                || e instanceof PessimisticLockingFailureException || e instanceof PessimisticLockException;
+    }
+
+    private static void backoff(RetryOnConflict retryOnConflict, int attempt, RuntimeException conflict) {
+        long ceiling = Math.min(retryOnConflict.maxBackoffMs(), retryOnConflict.initialBackoffMs() << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    private void count(String operation, String result) {
+        meterRegistry.counter("inventory.conflict.retries", "operation", operation, "result", result).increment();
+    }
+}
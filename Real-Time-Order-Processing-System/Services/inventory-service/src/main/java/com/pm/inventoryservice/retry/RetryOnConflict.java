@@ -0,0 +1,27 @@
+package com.pm.inventoryservice.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a transactional method when it loses an optimistic-lock race on a versioned row,
+ * or is picked as a deadlock victim or times out waiting for a row lock.
+ * Each attempt runs in its own transaction and re-reads the rows, so the method must be safe
+ * to repeat from the start. Calls that join a caller's transaction are not retried here; the
+ * conflict propagates to the outermost boundary instead.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    // Total attempts including the first call
+    int maxAttempts() default 4;
+
+    long initialBackoffMs() default 10;
+
+    long maxBackoffMs() default 200;
+}
@@ -0,0 +1,109 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.response.BulkReservationItemResultDTO;
+import com.pm.inventoryservice.dto.response.BulkReservationResultDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.model.ReservationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Confirms or releases the reservations of many orders in one call. On the database engine
+ * orders are settled in chunks through {@link ReservationBatchService}, one transaction per
+ * chunk; while Redis serves reservations each order goes through the engine on its own.
+ * Every order gets its own result, and a chunk that rolls back fails only its own orders.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkReservationService {
+
+    private final ReservationBatchService reservationBatchService;
+    private final ReservationEngineRouter reservationEngineRouter;
+
+    @Value("${inventory.reservation.bulk.chunk-size:200}")
+    private int chunkSize;
+
+    public BulkReservationResultDTO confirmReservations(List<UUID> orderIds) {
+        return settle("confirm", orderIds, reservationBatchService::confirmReservations, orderId -> {
+            List<StockReservationResponseDTO> confirmed = reservationEngineRouter.confirmReservation(orderId);
+            return success(orderId, ReservationStatus.CONFIRMED, confirmed.size());
+        });
+    }
+
+    public BulkReservationResultDTO releaseReservations(List<UUID> orderIds) {
+        return settle("release", orderIds, reservationBatchService::releaseReservations, orderId -> {
+            reservationEngineRouter.releaseReservation(orderId);
+            return success(orderId, ReservationStatus.RELEASED, null);
+        });
+    }
+
+    private BulkReservationResultDTO settle(String operation, List<UUID> requestedOrderIds,
+                                            Function<List<UUID>, List<BulkReservationItemResultDTO>> chunkSettler,
+                                            Function<UUID, BulkReservationItemResultDTO> orderSettler) {
+        Instant start = Instant.now();
+        List<UUID> orderIds = new ArrayList<>(new LinkedHashSet<>(requestedOrderIds));
+        List<BulkReservationItemResultDTO> results = new ArrayList<>(orderIds.size());
+
+        if (reservationEngineRouter.isRedisServing()) {
+            for (UUID orderId : orderIds) {
+                try {
+                    results.add(orderSettler.apply(orderId));
+                } catch (RuntimeException e) {
+                    results.add(failure(orderId, e.getMessage()));
+                }
+            }
+        } else {
+            for (int from = 0; from < orderIds.size(); from += chunkSize) {
+                List<UUID> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+                try {
+                    results.addAll(chunkSettler.apply(chunk));
+                } catch (RuntimeException e) {
+                    log.error("Bulk {} chunk of {} orders rolled back: {}", operation, chunk.size(), e.getMessage());
+                    for (UUID orderId : chunk) {
+                        results.add(failure(orderId, "Chunk rolled back: " + e.getMessage()));
+                    }
+                }
+            }
+        }
+
+        int succeeded = (int) results.stream().filter(BulkReservationItemResultDTO::isSuccess).count();
+        BulkReservationResultDTO result = BulkReservationResultDTO.builder()
+                .total(orderIds.size())
+                .succeeded(succeeded)
+                .failed(orderIds.size() - succeeded)
+                .duration(Duration.between(start, Instant.now()))
+                .results(results)
+                .build();
+        log.info("Bulk {} complete: {} orders, {} succeeded, {} failed in {}",
+                operation, result.getTotal(), result.getSucceeded(), result.getFailed(), result.getDuration());
+        return result;
+    }
+
+    private static BulkReservationItemResultDTO success(UUID orderId, ReservationStatus status, Integer lines) {
+        return BulkReservationItemResultDTO.builder()
+                .orderId(orderId)
+                .success(true)
+                .reservationStatus(status)
+                .lines(lines)
+                .build();
+    }
+
+    private static BulkReservationItemResultDTO failure(UUID orderId, String message) {
+        return BulkReservationItemResultDTO.builder()
+                .orderId(orderId)
+                .success(false)
+                .message(message)
+                .build();
+    }
+}
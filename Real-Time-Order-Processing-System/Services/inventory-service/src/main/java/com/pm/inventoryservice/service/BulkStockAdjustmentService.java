@@ -0,0 +1,217 @@
+package com.pm.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.request.BulkStockAdjustmentItemDTO;
+import com.pm.inventoryservice.dto.request.BulkStockAdjustmentRequestDTO;
+import com.pm.inventoryservice.dto.response.BulkItemResultDTO;
+import com.pm.inventoryservice.dto.response.BulkOperationResultDTO;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
+import com.pm.inventoryservice.mapper.InventoryMapper;
+import com.pm.inventoryservice.model.*;
+import com.pm.inventoryservice.repository.InventoryJdbcRepository;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies cycle-count adjustments for many products. Each chunk locks its inventory rows in
+ * productId order with one query, applies the deltas in memory, and writes the new quantities,
+ * movements and outbox events as batches in one transaction. An item that would drive stock
+ * negative fails on its own; the rest of its chunk still commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkStockAdjustmentService {
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final ShardedStockService shardedStockService;
+    private final LowStockAlertDebouncer lowStockAlertDebouncer;
+    private final WarehouseService warehouseService;
+    private final ObjectProvider<RedisReservationEngine> redisReservationEngine;
+    private final InventoryMapper inventoryMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    public BulkOperationResultDTO adjustStock(BulkStockAdjustmentRequestDTO request) {
+        redisReservationEngine.ifAvailable(engine -> engine.requireDatabaseMode("Bulk stock adjustment"));
+        Instant start = Instant.now();
+        List<BulkStockAdjustmentItemDTO> items = request.getAdjustments();
+        String adjustedBy = request.getAdjustedBy() != null ? request.getAdjustedBy() : "SYSTEM";
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            int chunkStart = from;
+            int chunkEnd = Math.min(from + chunkSize, items.size());
+            try {
+                template.executeWithoutResult(status -> adjustChunk(items, chunkStart, chunkEnd, adjustedBy, results));
+            } catch (RuntimeException e) {
+                log.error("Bulk adjustment chunk [{}, {}) rolled back: {}", chunkStart, chunkEnd, e.getMessage());
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    results[i] = failure(i, items.get(i), "Chunk rolled back: " + e.getMessage());
+                }
+            }
+        }
+
+        List<BulkItemResultDTO> resultList = Arrays.asList(results);
+        int succeeded = (int) resultList.stream().filter(BulkItemResultDTO::isSuccess).count();
+        BulkOperationResultDTO result = BulkOperationResultDTO.builder()
+                .total(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .duration(Duration.between(start, Instant.now()))
+                .results(resultList)
+                .build();
+        log.info("Bulk stock adjustment complete: {} items, {} succeeded, {} failed in {}",
+                result.getTotal(), result.getSucceeded(), result.getFailed(), result.getDuration());
+        return result;
+    }
+
+    private void adjustChunk(List<BulkStockAdjustmentItemDTO> items, int from, int to, String adjustedBy,
+                             BulkItemResultDTO[] results) {
+        LocalDateTime now = LocalDateTime.now();
+        Set<UUID> productIds = new TreeSet<>();
+        for (int i = from; i < to; i++) {
+            productIds.add(items.get(i).getProductId());
+        }
+
+        Map<UUID, Inventory> inventories = inventoryRepository.findByProductIdInWithLock(productIds).stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+
+        // Running stock per product, so repeated products in one request chain correctly
+        Map<UUID, Integer> available = new HashMap<>();
+        Map<UUID, Integer> newAvailableByInventoryId = new LinkedHashMap<>();
+        Map<UUID, StockTotalsDTO> shardedTotals = new HashMap<>();
+        List<StockMovement> movements = new ArrayList<>();
+
+        for (int i = from; i < to; i++) {
+            BulkStockAdjustmentItemDTO item = items.get(i);
+            Inventory inventory = inventories.get(item.getProductId());
+            if (inventory == null) {
+                results[i] = failure(i, item, "Inventory not found for productId: " + item.getProductId());
+                continue;
+            }
+            if (warehouseService.isWarehouseManaged(item.getProductId())) {
+                results[i] = failure(i, item, "Stock is held per warehouse, adjust it through its warehouse");
+                continue;
+            }
+            if (item.getQuantity() == 0) {
+                results[i] = failure(i, item, "Quantity must be non-zero");
+                continue;
+            }
+
+            int previous = available.computeIfAbsent(inventory.getProductId(),
+                    productId -> shardedStockService.getTotals(inventory).getQuantityAvailable());
+            int next = previous + item.getQuantity();
+            if (next < 0) {
+                results[i] = failure(i, item, "Adjustment would result in negative quantity");
+                continue;
+            }
+
+            if (inventory.isSharded()) {
+                shardedTotals.put(inventory.getProductId(), shardedStockService.adjust(inventory, item.getQuantity()));
+            } else {
+                newAvailableByInventoryId.put(inventory.getInventoryId(), next);
+            }
+            available.put(inventory.getProductId(), next);
+
+            movements.add(StockMovement.builder()
+                    .inventoryId(inventory.getInventoryId())
+                    .movementType(item.getQuantity() > 0 ? MovementType.STOCK_ADDED : MovementType.STOCK_REMOVED)
+                    .quantity(Math.abs(item.getQuantity()))
+                    .previousQuantity(previous)
+                    .newQuantity(next)
+                    .referenceId(inventory.getInventoryId())
+                    .referenceType("INVENTORY")
+                    .reason(item.getReason())
+                    .createdBy(adjustedBy)
+                    .build());
+
+            results[i] = BulkItemResultDTO.builder()
+                    .index(i)
+                    .productId(item.getProductId())
+                    .success(true)
+                    .previousQuantity(previous)
+                    .newQuantity(next)
+                    .build();
+        }
+
+        inventoryJdbcRepository.batchUpdateAvailable(newAvailableByInventoryId, now);
+        stockMovementJournal.recordAll(movements);
+        inventoryJdbcRepository.batchInsertOutboxEvents(buildEvents(inventories, available, shardedTotals, now));
+    }
+
+    // One STOCK_ADJUSTED snapshot per touched product carrying its final state, plus a debounced low-stock alert
+    private List<OutboxEvent> buildEvents(Map<UUID, Inventory> inventories, Map<UUID, Integer> available,
+                                          Map<UUID, StockTotalsDTO> shardedTotals, LocalDateTime now) {
+        List<OutboxEvent> events = new ArrayList<>(available.size());
+        for (Map.Entry<UUID, Integer> entry : available.entrySet()) {
+            Inventory inventory = inventories.get(entry.getKey());
+            StockTotalsDTO totals = shardedTotals.get(entry.getKey());
+            if (inventory.isSharded() && totals == null) {
+                continue;
+            }
+
+            InventoryResponseDTO snapshot = inventoryMapper.toResponseDTO(inventory);
+            snapshot.setQuantityAvailable(entry.getValue());
+            snapshot.setQuantityReserved(totals != null ? totals.getQuantityReserved() : inventory.getQuantityReserved());
+            if (!inventory.isSharded() && snapshot.getQuantityAvailable().equals(inventory.getQuantityAvailable())) {
+                continue;
+            }
+            snapshot.setUpdatedAt(now);
+
+            events.add(buildEvent(inventory, EventType.STOCK_ADJUSTED, snapshot, now));
+            if (entry.getValue() <= inventory.getReorderLevel() && lowStockAlertDebouncer.tryAcquire(inventory.getProductId())) {
+                events.add(buildEvent(inventory, EventType.LOW_STOCK_ALERT, snapshot, now));
+            }
+        }
+        return events;
+    }
+
+    private OutboxEvent buildEvent(Inventory inventory, EventType eventType, InventoryResponseDTO snapshot, LocalDateTime now) {
+        try {
+            return OutboxEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .aggregateId(inventory.getProductId())
+                    .aggregateType("INVENTORY")
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(snapshot))
+                    .published(false)
+                    .retryCount(0)
+                    .createdAt(now)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing stock adjustment event: {}", e.getMessage());
+            throw new RuntimeException("Error serializing stock adjustment event");
+        }
+    }
+
+    private static BulkItemResultDTO failure(int index, BulkStockAdjustmentItemDTO item, String message) {
+        return BulkItemResultDTO.builder()
+                .index(index)
+                .productId(item.getProductId())
+                .success(false)
+                .message(message)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.dto.response.StockCheckResponseDTO;
+import com.pm.inventoryservice.exception.StockOperationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Pushes inventory changes to long-lived subscriptions. Every instance is fed all stock
+ * snapshots published on inventory-events, so a subscriber sees changes made through any
+ * instance. Reservation-driven changes only reach the topic while
+ * inventory.streams.publish-stock-levels is enabled.
+ *
+ * Each subscription gets the current state of its products first, then at most one update
+ * per product per coalescing window carrying that product's latest state. A subscriber too
+ * slow to drain its buffer is disconnected rather than fed stale data; on reconnect it starts
+ * again from the current state.
+ */
+@Service
+@Slf4j
+public class InventoryChangeFeed {
+
+    private final Sinks.Many<InventoryResponseDTO> changes = Sinks.many().multicast().directBestEffort();
+    private final ReactiveStockQueryService reactiveStockQueryService;
+
+    @Value("${inventory.streams.publish-stock-levels:false}")
+    private boolean publishStockLevels;
+
+    @Value("${inventory.change-feed.max-products:200}")
+    private int maxProducts;
+
+    @Value("${inventory.change-feed.connection-buffer:256}")
+    private int connectionBuffer;
+
+    // Floor for the client-supplied window; a zero or tiny window would defeat coalescing
+    @Value("${inventory.change-feed.min-coalesce-window:PT0.1S}")
+    private Duration minCoalesceWindow;
+
+    public InventoryChangeFeed(ReactiveStockQueryService reactiveStockQueryService) {
+        this.reactiveStockQueryService = reactiveStockQueryService;
+    }
+
+    // True when every mutation, reservations included, reaches the feed
+    public boolean coversAllMutations() {
+        return publishStockLevels;
+    }
+
+    // Called from several consumer threads; the sink needs its emissions serialized
+    public synchronized void publish(InventoryResponseDTO snapshot) {
+        Sinks.EmitResult result = changes.tryEmitNext(snapshot);
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.debug("Change for productId: {} not emitted: {}", snapshot.getProductId(), result);
+        }
+    }
+
+    public Flux<InventoryResponseDTO> subscribe(Set<UUID> productIds, Duration coalesceWindow) {
+        if (productIds.isEmpty() || productIds.size() > maxProducts) {
+            throw new StockOperationException("Subscribe to between 1 and " + maxProducts + " products");
+        }
+        Duration window = coalesceWindow.compareTo(minCoalesceWindow) < 0 ? minCoalesceWindow : coalesceWindow;
+
+        Flux<InventoryResponseDTO> updates = changes.asFlux()
+                .filter(snapshot -> productIds.contains(snapshot.getProductId()))
+                .groupBy(InventoryResponseDTO::getProductId)
+                .flatMap(product -> product.sample(window), productIds.size());
+
+        // Updates are subscribed before the current state is read, so nothing in between is missed;
+        // a current-state row older than an update already sent is dropped
+        return Flux.defer(() -> {
+            Map<UUID, LocalDateTime> lastSent = new HashMap<>();
+            return Flux.merge(updates, reactiveStockQueryService.getInventories(productIds))
+                    .filter(snapshot -> isNewest(lastSent, snapshot));
+        }).onBackpressureBuffer(connectionBuffer, dropped -> { }, BufferOverflowStrategy.ERROR);
+    }
+
+    // Availability for one product and quantity, re-sent only when the answer changes
+    public Flux<StockCheckResponseDTO> subscribeStockCheck(UUID productId, int quantity, Duration coalesceWindow) {
+        return subscribe(Set.of(productId), coalesceWindow)
+                .map(inventory -> ReactiveStockQueryService.toStockCheck(productId, quantity, inventory))
+                .distinctUntilChanged();
+    }
+
+    // Merge emits serially, so the per-subscription map needs no locking
+    private static boolean isNewest(Map<UUID, LocalDateTime> lastSent, InventoryResponseDTO snapshot) {
+        LocalDateTime previous = lastSent.get(snapshot.getProductId());
+        if (previous != null && snapshot.getUpdatedAt() != null && snapshot.getUpdatedAt().isBefore(previous)) {
+            return false;
+        }
+        if (snapshot.getUpdatedAt() != null) {
+            lastSent.put(snapshot.getProductId(), snapshot.getUpdatedAt());
+        }
+        return true;
+    }
+}
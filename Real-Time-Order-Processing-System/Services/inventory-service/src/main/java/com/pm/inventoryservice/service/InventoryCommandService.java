@@ -0,0 +1,127 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.command.InventoryCommandDTO;
+import com.pm.inventoryservice.dto.command.InventoryCommandReplyDTO;
+import com.pm.inventoryservice.dto.response.BulkReservationItemResultDTO;
+import com.pm.inventoryservice.dto.response.BulkReservationResultDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.model.InventoryCommandType;
+import com.pm.inventoryservice.model.ReservationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Executes reserve, confirm and release commands from the inventory-commands topic and builds
+ * one reply per command. Commands are split into waves in which each order appears at most
+ * once, so within a wave confirms and releases can be settled in bulk while every order still
+ * sees its commands in the order they were sent. Each reply is handed over as soon as its
+ * command completes, so callers are not kept waiting for the rest of the poll.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCommandService {
+
+    private final ReservationEngineRouter reservationEngineRouter;
+    private final BulkReservationService bulkReservationService;
+
+    // Replies are passed to onReply with the index of the command they answer
+    public void execute(List<InventoryCommandDTO> commands, BiConsumer<Integer, InventoryCommandReplyDTO> onReply) {
+        List<Integer> wave = new ArrayList<>();
+        Set<UUID> waveOrders = new HashSet<>();
+
+        for (int i = 0; i < commands.size(); i++) {
+            if (!waveOrders.add(commands.get(i).getOrderId())) {
+                executeWave(commands, wave, onReply);
+                wave.clear();
+                waveOrders.clear();
+                waveOrders.add(commands.get(i).getOrderId());
+            }
+            wave.add(i);
+        }
+        executeWave(commands, wave, onReply);
+    }
+
+    private void executeWave(List<InventoryCommandDTO> commands, List<Integer> wave,
+                             BiConsumer<Integer, InventoryCommandReplyDTO> onReply) {
+        List<Integer> confirms = new ArrayList<>();
+        List<Integer> releases = new ArrayList<>();
+
+        for (int index : wave) {
+            InventoryCommandDTO command = commands.get(index);
+            switch (command.getCommandType()) {
+                case RESERVE -> onReply.accept(index, reserve(command));
+                case CONFIRM -> confirms.add(index);
+                case RELEASE -> releases.add(index);
+            }
+        }
+
+        settle(commands, confirms, onReply, InventoryCommandType.CONFIRM);
+        settle(commands, releases, onReply, InventoryCommandType.RELEASE);
+    }
+
+    private InventoryCommandReplyDTO reserve(InventoryCommandDTO command) {
+        try {
+            List<StockReservationResponseDTO> reservations = reservationEngineRouter.reserveStock(
+                    command.getOrderId(), command.getItems(), null);
+            return InventoryCommandReplyDTO.builder()
+                    .orderId(command.getOrderId())
+                    .commandType(InventoryCommandType.RESERVE)
+                    .success(true)
+                    .reservationStatus(reservations.isEmpty() ? null : reservations.getFirst().getReservationStatus())
+                    .reservations(reservations)
+                    .build();
+        } catch (RuntimeException e) {
+            log.info("Reserve command rejected for orderId: {}, reason: {}", command.getOrderId(), e.getMessage());
+            return failure(command, e.getMessage());
+        }
+    }
+
+    private void settle(List<InventoryCommandDTO> commands, List<Integer> indexes,
+                        BiConsumer<Integer, InventoryCommandReplyDTO> onReply, InventoryCommandType commandType) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+
+        List<UUID> orderIds = indexes.stream().map(index -> commands.get(index).getOrderId()).toList();
+        BulkReservationResultDTO result = commandType == InventoryCommandType.CONFIRM
+                ? bulkReservationService.confirmReservations(orderIds)
+                : bulkReservationService.releaseReservations(orderIds);
+
+        Map<UUID, BulkReservationItemResultDTO> resultsByOrder = new HashMap<>();
+        result.getResults().forEach(item -> resultsByOrder.put(item.getOrderId(), item));
+
+        for (int index : indexes) {
+            InventoryCommandDTO command = commands.get(index);
+            BulkReservationItemResultDTO item = resultsByOrder.get(command.getOrderId());
+            onReply.accept(index, item == null
+                    ? failure(command, "No result for orderId: " + command.getOrderId())
+                    : toReply(command, item.isSuccess(), item.getReservationStatus(), item.getMessage()));
+        }
+    }
+
+    private static InventoryCommandReplyDTO toReply(InventoryCommandDTO command, boolean success,
+                                                    ReservationStatus status, String message) {
+        return InventoryCommandReplyDTO.builder()
+                .orderId(command.getOrderId())
+                .commandType(command.getCommandType())
+                .success(success)
+                .reservationStatus(status)
+                .message(message)
+                .build();
+    }
+
+    private static InventoryCommandReplyDTO failure(InventoryCommandDTO command, String message) {
+        return toReply(command, false, null, message);
+    }
+}
@@ -0,0 +1,278 @@
+package com.pm.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pm.inventoryservice.dto.request.InventoryCreateRequestDTO;
+import com.pm.inventoryservice.dto.response.ImportReportDTO;
+import com.pm.inventoryservice.dto.response.ImportRowErrorDTO;
+import com.pm.inventoryservice.mapper.InventoryMapper;
+import com.pm.inventoryservice.model.*;
+import com.pm.inventoryservice.repository.InventoryJdbcRepository;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON catalog into the inventory table. Rows are parsed one at a time and
+ * written in chunks: each chunk checks its product IDs and SKUs against the table with one
+ * query each and inserts inventory rows, creation movements and outbox events as JDBC batches
+ * in a single transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final InventoryService inventoryService;
+    private final InventoryMapper inventoryMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.import.chunk-size:1000}")
+    private int chunkSize;
+
+    public ImportReportDTO importInventory(InputStream input, ImportFormat format) {
+        Instant start = Instant.now();
+        ImportProgress progress = new ImportProgress();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<InventoryCreateRequestDTO> rows = readerFor(format).readValues(input)) {
+            while (rows.hasNextValue()) {
+                long rowNumber = ++progress.totalRows;
+                try {
+                    chunk.add(new ImportRow(rowNumber, rows.nextValue()));
+                } catch (JsonMappingException e) {
+                    progress.fail(rowNumber, null, null, "Unreadable row: " + e.getOriginalMessage());
+                }
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, progress);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            progress.aborted = true;
+            progress.fail(progress.totalRows, null, null, "Import aborted, upload could not be parsed: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+
+        ImportReportDTO report = ImportReportDTO.builder()
+                .totalRows(progress.totalRows)
+                .imported(progress.imported)
+                .failed(progress.failed)
+                .aborted(progress.aborted)
+                .duration(Duration.between(start, Instant.now()))
+                .errors(progress.errors)
+                .build();
+        log.info("Inventory import complete: {} rows, {} imported, {} failed in {}",
+                report.getTotalRows(), report.getImported(), report.getFailed(), report.getDuration());
+        return report;
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportProgress progress) {
+        List<ImportRow> valid = validate(chunk, progress);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            Integer imported = new TransactionTemplate(transactionManager).execute(status -> insertChunk(valid, progress));
+            progress.imported += imported != null ? imported : 0;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the keys after the duplicate check; settle the chunk row by row
+            log.warn("Import chunk of {} rows hit a constraint violation, retrying individually", valid.size());
+            for (ImportRow row : valid) {
+                try {
+                    inventoryService.createInventory(row.request(), row.request().getInitialQuantity());
+                    progress.imported++;
+                } catch (RuntimeException rowError) {
+                    progress.fail(row, rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<ImportRow> validate(List<ImportRow> chunk, ImportProgress progress) {
+        List<ImportRow> valid = new ArrayList<>(chunk.size());
+        Set<UUID> chunkProductIds = new HashSet<>();
+        Set<String> chunkSkus = new HashSet<>();
+
+        for (ImportRow row : chunk) {
+            Set<ConstraintViolation<InventoryCreateRequestDTO>> violations = validator.validate(row.request());
+            if (!violations.isEmpty()) {
+                progress.fail(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (!chunkProductIds.add(row.request().getProductId())) {
+                progress.fail(row, "Duplicate productId in upload");
+            } else if (!chunkSkus.add(row.request().getSku())) {
+                chunkProductIds.remove(row.request().getProductId());
+                progress.fail(row, "Duplicate sku in upload");
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return valid;
+        }
+
+        Set<UUID> existingProductIds = new HashSet<>(inventoryRepository.findExistingProductIds(chunkProductIds));
+        Set<String> existingSkus = new HashSet<>(inventoryRepository.findExistingSkus(chunkSkus));
+        if (existingProductIds.isEmpty() && existingSkus.isEmpty()) {
+            return valid;
+        }
+
+        List<ImportRow> fresh = new ArrayList<>(valid.size());
+        for (ImportRow row : valid) {
+            if (existingProductIds.contains(row.request().getProductId())) {
+                progress.fail(row, "Inventory already exists for productId: " + row.request().getProductId());
+            } else if (existingSkus.contains(row.request().getSku())) {
+                progress.fail(row, "Sku already exists: " + row.request().getSku());
+            } else {
+                fresh.add(row);
+            }
+        }
+        return fresh;
+    }
+
+    private int insertChunk(List<ImportRow> rows, ImportProgress progress) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Inventory> inventories = new ArrayList<>(rows.size());
+        List<StockMovement> movements = new ArrayList<>(rows.size());
+        List<OutboxEvent> events = new ArrayList<>(rows.size());
+
+        for (ImportRow row : rows) {
+            InventoryCreateRequestDTO request = row.request();
+            int quantity = request.getInitialQuantity() != null ? request.getInitialQuantity() : 0;
+
+            Inventory inventory = inventoryMapper.toEntity(request);
+            inventory.setInventoryId(UUID.randomUUID());
+            inventory.setQuantityAvailable(quantity);
+            inventory.setCreatedAt(now);
+            inventory.setUpdatedAt(now);
+            inventory.setVersion(0L);
+            inventory.setLowStock(quantity <= inventory.getReorderLevel());
+            inventories.add(inventory);
+
+            movements.add(StockMovement.builder()
+                    .inventoryId(inventory.getInventoryId())
+                    .movementType(MovementType.INVENTORY_CREATED)
+                    .quantity(quantity)
+                    .previousQuantity(0)
+                    .newQuantity(quantity)
+                    .referenceId(inventory.getInventoryId())
+                    .referenceType("INVENTORY")
+                    .reason("Inventory imported")
+                    .createdBy("SYSTEM")
+                    .build());
+
+            try {
+                events.add(OutboxEvent.builder()
+                        .eventId(UUID.randomUUID())
+                        .aggregateId(inventory.getProductId())
+                        .aggregateType("INVENTORY")
+                        .eventType(EventType.INVENTORY_CREATED)
+                        .payload(objectMapper.writeValueAsString(inventoryMapper.toResponseDTO(inventory)))
+                        .published(false)
+                        .retryCount(0)
+                        .createdAt(now)
+                        .build());
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing inventory response: {}", e.getMessage());
+                throw new RuntimeException("Error serializing inventory response:");
+            }
+        }
+
+        inventoryJdbcRepository.batchInsertInventory(inventories);
+        stockMovementJournal.recordAll(movements);
+        inventoryJdbcRepository.batchInsertOutboxEvents(events);
+        log.debug("Imported chunk of {} inventory rows ending at row {}", rows.size(), rows.getLast().rowNumber());
+        return rows.size();
+    }
+
+    private ObjectReader readerFor(ImportFormat format) {
+        if (format == ImportFormat.CSV) {
+            CsvMapper csvMapper = CsvMapper.builder()
+                    .enable(CsvParser.Feature.TRIM_SPACES)
+                    .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .build();
+            return csvMapper.readerFor(InventoryCreateRequestDTO.class)
+                    .with(CsvSchema.emptySchema().withHeader());
+        }
+        return objectMapper.readerFor(InventoryCreateRequestDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static final class ImportRow {
+        private final long rowNumber;
+        private final InventoryCreateRequestDTO request;
+
+        private ImportRow(long rowNumber, InventoryCreateRequestDTO request) {
+            this.rowNumber = rowNumber;
+            this.request = request;
+        }
+
+        private long rowNumber() {
+            return rowNumber;
+        }
+
+        private InventoryCreateRequestDTO request() {
+            return request;
+        }
+    }
+
+    private static final class ImportProgress {
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private boolean aborted;
+        private final List<ImportRowErrorDTO> errors = new ArrayList<>();
+
+        private void fail(ImportRow row, String message) {
+            fail(row.rowNumber(), row.request().getProductId(), row.request().getSku(), message);
+        }
+
+        private void fail(long rowNumber, UUID productId, String sku, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ImportRowErrorDTO.builder()
+                        .rowNumber(rowNumber)
+                        .productId(productId)
+                        .sku(sku)
+                        .message(message)
+                        .build());
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.ledger.*;
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
+import com.pm.inventoryservice.exception.InventoryNotFoundException;
+import com.pm.inventoryservice.exception.StockOperationException;
+import com.pm.inventoryservice.model.Inventory;
+import com.pm.inventoryservice.model.InventorySnapshot;
+import com.pm.inventoryservice.repository.InventoryJdbcRepository;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import com.pm.inventoryservice.repository.InventorySnapshotRepository;
+import com.pm.inventoryservice.repository.StockMovementRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Rebuilds stock levels from the stock_movements ledger. A replay starts from the latest
+ * snapshot at or before the requested point and folds in the movements after it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryLedgerService {
+
+    private static final int REPLAY_PAGE_SIZE = 1000;
+    private static final int SCAN_PAGE_SIZE = 500;
+    private static final int MAX_REPORTED_DRIFTS = 1000;
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final LocalDateTime LEDGER_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final InventorySnapshotRepository inventorySnapshotRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ShardedStockService shardedStockService;
+    private final ObjectProvider<RedisReservationEngine> redisReservationEngine;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.ledger.parallelism:8}")
+    private int parallelism;
+
+    // Movements younger than this may still belong to uncommitted transactions, so snapshots stay behind it
+    @Value("${inventory.ledger.snapshot.lag:PT5M}")
+    private Duration snapshotLag;
+
+    @Value("${inventory.ledger.snapshot.min-movements:100}")
+    private long minMovementsPerSnapshot;
+
+    @Transactional(readOnly = true)
+    public StockProjectionDTO projectCurrent(UUID productId) {
+        Inventory inventory = getInventoryOrThrow(productId);
+        return replay(inventory.getInventoryId(), productId, LocalDateTime.now());
+    }
+
+    // Stock as it stood at the given instant: latest snapshot at or before it plus the movements up to it.
+    // Products soft-deleted since then are included, as they still had stock at that instant
+    @Transactional(readOnly = true)
+    public StockProjectionDTO projectAt(UUID productId, LocalDateTime at) {
+        UUID inventoryId = inventoryJdbcRepository.findInventoryIdIncludingDeleted(productId)
+                .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
+        return replay(inventoryId, productId, at);
+    }
+
+    /**
+     * Projects every product at the given instant and hands the projections to the sink one at
+     * a time, in inventoryId order, as each page of the catalog is replayed. Products with no
+     * ledger history at that point did not exist yet and are skipped; products soft-deleted
+     * since are included.
+     *
+     * @return number of products projected
+     */
+    public int projectCatalogAt(LocalDateTime at, Consumer<StockProjectionDTO> sink) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+
+        int[] projected = {0};
+        forEachBalancePage(after -> inventoryJdbcRepository.findBalancesIncludingDeletedAfter(after, SCAN_PAGE_SIZE),
+                balance -> template.execute(status -> replay(balance.getInventoryId(), balance.getProductId(), at)),
+                projection -> {
+                    if (projection.getSnapshotId() == null && projection.getMovementsReplayed() == 0) {
+                        return;
+                    }
+                    sink.accept(projection);
+                    projected[0]++;
+                });
+        log.info("Catalog projected at {}: {} products", at, projected[0]);
+        return projected[0];
+    }
+
+    @Transactional
+    public StockProjectionDTO rebuildInventory(UUID productId) {
+        Inventory inventory = inventoryRepository.findByProductIdWithLock(productId)
+                .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
+        if (inventory.isSharded()) {
+            throw new StockOperationException("Disable sharded stock before rebuilding productId: " + productId);
+        }
+        redisReservationEngine.ifAvailable(engine -> engine.requireDatabaseMode("Rebuilding inventory from the ledger"));
+        StockProjectionDTO projection = replay(inventory.getInventoryId(), productId, LocalDateTime.now());
+
+        if (inventory.getQuantityAvailable() != projection.getQuantityAvailable()
+                || inventory.getQuantityReserved() != projection.getQuantityReserved()) {
+            log.warn("Rebuilding productId: {} from ledger, table: {}/{}, ledger: {}/{}", productId,
+                    inventory.getQuantityAvailable(), inventory.getQuantityReserved(),
+                    projection.getQuantityAvailable(), projection.getQuantityReserved());
+            inventory.setQuantityAvailable(projection.getQuantityAvailable());
+            inventory.setQuantityReserved(projection.getQuantityReserved());
+            inventoryRepository.save(inventory);
+        }
+        return projection;
+    }
+
+    @Scheduled(cron = "${inventory.ledger.snapshot.cron:0 30 2 * * *}")
+    public void snapshotAll() {
+        LocalDateTime position = LocalDateTime.now().minus(snapshotLag);
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        int[] written = {0};
+        forEachBalancePage(balance -> template.execute(status -> takeSnapshot(balance, position)),
+                created -> {
+                    if (Boolean.TRUE.equals(created)) {
+                        written[0]++;
+                    }
+                });
+        log.info("Ledger snapshot run complete: {} snapshots written at position {}", written[0], position);
+    }
+
+    public LedgerVerificationReportDTO verify() {
+        Instant start = Instant.now();
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        // Ledger and row are read from the same database snapshot so concurrent writes do not show up as drift
+        template.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        List<LedgerDriftDTO> drifts = new ArrayList<>();
+        int[] counters = {0, 0, 0};
+        forEachBalancePage(balance -> template.execute(status -> checkDrift(balance.getInventoryId(), balance.getProductId())),
+                drift -> {
+                    counters[0]++;
+                    if (drift == null) {
+                        return;
+                    }
+                    counters[1]++;
+                    if (drifts.size() < MAX_REPORTED_DRIFTS) {
+                        drifts.add(drift);
+                    }
+                },
+                () -> counters[2]++);
+
+        LedgerVerificationReportDTO report = LedgerVerificationReportDTO.builder()
+                .productsChecked(counters[0])
+                .driftCount(counters[1])
+                .failures(counters[2])
+                .duration(Duration.between(start, Instant.now()))
+                .drifts(drifts)
+                .build();
+        log.info("Ledger verification complete: {} products checked, {} drifted, {} failed in {}",
+                report.getProductsChecked(), report.getDriftCount(), report.getFailures(), report.getDuration());
+        return report;
+    }
+
+    // Replays the ledger of one inventory row up to and including the given instant
+    StockProjectionDTO replay(UUID inventoryId, UUID productId, LocalDateTime upTo) {
+        Optional<InventorySnapshot> snapshot = inventorySnapshotRepository
+                .findFirstByInventoryIdAndLastMovementAtLessThanEqualOrderByLastMovementAtDesc(inventoryId, upTo);
+
+        Balance balance = new Balance();
+        LocalDateTime position = LEDGER_START;
+        if (snapshot.isPresent()) {
+            balance.available = snapshot.get().getQuantityAvailable();
+            balance.reserved = snapshot.get().getQuantityReserved();
+            position = snapshot.get().getLastMovementAt();
+        }
+
+        long replayed = 0;
+        LedgerEntryDTO last = null;
+        List<LedgerEntryDTO> page = stockMovementRepository.findLedgerEntries(
+                inventoryId, position, upTo, PageRequest.of(0, REPLAY_PAGE_SIZE));
+        while (!page.isEmpty()) {
+            for (LedgerEntryDTO entry : page) {
+                apply(balance, entry);
+            }
+            replayed += page.size();
+            last = page.getLast();
+            if (page.size() < REPLAY_PAGE_SIZE) {
+                break;
+            }
+            page = stockMovementRepository.findLedgerEntriesAfter(inventoryId, last.getCreatedAt(),
+                    last.getMovementId(), upTo, PageRequest.of(0, REPLAY_PAGE_SIZE));
+        }
+
+        return StockProjectionDTO.builder()
+                .inventoryId(inventoryId)
+                .productId(productId)
+                .quantityAvailable(balance.available)
+                .quantityReserved(balance.reserved)
+                .lastMovementAt(last != null ? last.getCreatedAt() : position)
+                .snapshotId(snapshot.map(InventorySnapshot::getSnapshotId).orElse(null))
+                .movementsReplayed(replayed)
+                .build();
+    }
+
+    private boolean takeSnapshot(InventoryBalanceDTO balance, LocalDateTime position) {
+        StockProjectionDTO projection = replay(balance.getInventoryId(), balance.getProductId(), position);
+        if (projection.getMovementsReplayed() < minMovementsPerSnapshot) {
+            return false;
+        }
+
+        long previousCount = projection.getSnapshotId() == null ? 0 : inventorySnapshotRepository
+                .findById(projection.getSnapshotId())
+                .map(InventorySnapshot::getMovementCount)
+                .orElse(0L);
+
+        inventorySnapshotRepository.save(InventorySnapshot.builder()
+                .inventoryId(balance.getInventoryId())
+                .productId(balance.getProductId())
+                .quantityAvailable(projection.getQuantityAvailable())
+                .quantityReserved(projection.getQuantityReserved())
+                .lastMovementAt(projection.getLastMovementAt())
+                .movementCount(previousCount + projection.getMovementsReplayed())
+                .build());
+        return true;
+    }
+
+    private LedgerDriftDTO checkDrift(UUID inventoryId, UUID productId) {
+        Inventory inventory = inventoryRepository.findById(inventoryId).orElse(null);
+        if (inventory == null) {
+            return null;
+        }
+        StockTotalsDTO totals = shardedStockService.getTotals(inventory);
+        StockProjectionDTO projection = replay(inventoryId, productId, LocalDateTime.now());
+        if (projection.getQuantityAvailable() == totals.getQuantityAvailable()
+                && projection.getQuantityReserved() == totals.getQuantityReserved()) {
+            return null;
+        }
+        return LedgerDriftDTO.builder()
+                .productId(productId)
+                .ledgerAvailable(projection.getQuantityAvailable())
+                .ledgerReserved(projection.getQuantityReserved())
+                .tableAvailable(totals.getQuantityAvailable())
+                .tableReserved(totals.getQuantityReserved())
+                .build();
+    }
+
+    private <T> void forEachBalancePage(Function<InventoryBalanceDTO, T> task,
+                                        Consumer<T> onResult) {
+        forEachBalancePage(task, onResult, () -> { });
+    }
+
+    private <T> void forEachBalancePage(Function<InventoryBalanceDTO, T> task,
+                                        Consumer<T> onResult,
+                                        Runnable onFailure) {
+        forEachBalancePage(after -> inventoryRepository.findBalancesAfter(after, PageRequest.of(0, SCAN_PAGE_SIZE)),
+                task, onResult, onFailure);
+    }
+
+    private <T> void forEachBalancePage(Function<UUID, List<InventoryBalanceDTO>> pageAfter,
+                                        Function<InventoryBalanceDTO, T> task,
+                                        Consumer<T> onResult) {
+        forEachBalancePage(pageAfter, task, onResult, () -> { });
+    }
+
+    // Walks the catalog in keyset pages and fans each page out over the worker pool
+    private <T> void forEachBalancePage(Function<UUID, List<InventoryBalanceDTO>> pageAfter,
+                                        Function<InventoryBalanceDTO, T> task,
+                                        Consumer<T> onResult,
+                                        Runnable onFailure) {
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            UUID after = MIN_UUID;
+            while (true) {
+                List<InventoryBalanceDTO> balances = pageAfter.apply(after);
+                if (balances.isEmpty()) {
+                    break;
+                }
+
+                List<Future<T>> futures = new ArrayList<>(balances.size());
+                for (InventoryBalanceDTO balance : balances) {
+                    futures.add(executor.submit(() -> task.apply(balance)));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        onResult.accept(futures.get(i).get());
+                    } catch (ExecutionException e) {
+                        onFailure.run();
+                        log.error("Ledger task failed for productId: {}, error: {}",
+                                balances.get(i).getProductId(), e.getCause().getMessage());
+                    }
+                }
+
+                if (balances.size() < SCAN_PAGE_SIZE) {
+                    break;
+                }
+                after = balances.getLast().getInventoryId();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Ledger scan interrupted");
+        }
+    }
+
+    private static void apply(Balance balance, LedgerEntryDTO entry) {
+        int quantity = entry.getQuantity();
+        switch (entry.getMovementType()) {
+            case INVENTORY_CREATED, CREATE_INVENTORY -> {
+                balance.available = entry.getNewQuantity();
+                balance.reserved = 0;
+            }
+            case ADJUSTMENT -> balance.available = entry.getNewQuantity();
+            case STOCK_ADDED, RESTOCK, RETURN -> balance.available += quantity;
+            case STOCK_REMOVED, DEDUCTION -> balance.available -= quantity;
+            case RESERVATION -> {
+                balance.available -= quantity;
+                balance.reserved += quantity;
+            }
+            case RESERVATION_CONFIRMED -> balance.reserved -= quantity;
+            case RESERVATION_RELEASED, RESERVATION_EXPIRED, RELEASE -> {
+                balance.available += quantity;
+                balance.reserved -= quantity;
+            }
+            case INVENTORY_UPDATED -> {
+                // metadata only, quantities unchanged
+            }
+        }
+    }
+
+    private Inventory getInventoryOrThrow(UUID productId) {
+        return inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
+    }
+
+    private static final class Balance {
+        private int available;
+        private int reserved;
+    }
+}
@@ -3,11 +3,15 @@ package com.pm.inventoryservice.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.eventDTO.InventoryEventDTO;
 import com.pm.inventoryservice.dto.request.*;
+import com.pm.inventoryservice.dto.response.WarehouseStockResponseDTO;
 import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
 import com.pm.inventoryservice.dto.response.StockCheckResponseDTO;
+import com.pm.inventoryservice.dto.response.StockMovementPageDTO;
 import com.pm.inventoryservice.dto.response.StockMovementResponseDTO;
 import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
 import com.pm.inventoryservice.exception.DuplicateProductException;
 import com.pm.inventoryservice.exception.InvalidReservationStateException;
 import com.pm.inventoryservice.exception.InventoryNotFoundException;
@@ -18,8 +22,11 @@ import com.pm.inventoryservice.repository.InventoryRepository;
 import com.pm.inventoryservice.repository.OutboxEventRepository;
 import com.pm.inventoryservice.repository.StockMovementRepository;
 import com.pm.inventoryservice.repository.StockReservationRepository;
+import com.pm.inventoryservice.retry.RetryOnConflict;
+import com.pm.inventoryservice.service.WarehouseAllocator.Allocation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,7 +36,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -41,10 +53,17 @@ public class InventoryService {
     private final OutboxEventRepository outboxEventRepository;
     private final StockReservationRepository stockReservationRepository;
     private final StockMovementRepository stockMovementRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final ShardedStockService shardedStockService;
+    private final LowStockAlertDebouncer lowStockAlertDebouncer;
+    private final WarehouseService warehouseService;
+    private final ObjectProvider<RedisReservationEngine> redisReservationEngine;
     private final InventoryMapper inventoryMapper;
     private final ObjectMapper objectMapper;
 
     private static final int RESERVATION_EXPIRY_MINUTES = 15;
+    private static final int MOVEMENT_HISTORY_DEFAULT_DAYS = 90;
+    private static final int MOVEMENT_HISTORY_MAX_LIMIT = 500;
 
     @Transactional
     public InventoryResponseDTO createInventory(InventoryCreateRequestDTO createRequestDTO, Integer quantity) {
@@ -68,7 +87,7 @@ public class InventoryService {
                 .reason("Inventory created")
                 .createdBy("SYSTEM")
                 .build();
-        stockMovementRepository.save(movement);
+        stockMovementJournal.record(movement);
 
 
         String payload;
@@ -98,24 +117,28 @@ public class InventoryService {
     @Transactional(readOnly = true)
     public InventoryResponseDTO getInventoryByProductId(UUID productId){
         Inventory inventory = getInventoryOrThrow(productId);
-        return inventoryMapper.toResponseDTO(inventory);
+        return toLiveResponseDTO(inventory, shardedStockService.getTotals(inventory));
     }
     
     @Transactional(readOnly = true)
     public InventoryResponseDTO getInventoryBySku(String sku){
-        Inventory inventory = inventoryRepository.findBySku(sku)
+        InventoryResponseDTO responseDTO = inventoryRepository.findResponseBySku(sku)
                 .orElseThrow(()-> new InventoryNotFoundException(sku));
-        return inventoryMapper.toResponseDTO(inventory);
+        StockTotalsDTO totals = shardedStockService.getTotals(responseDTO.getProductId(),
+                responseDTO.getQuantityAvailable(), responseDTO.getQuantityReserved());
+        responseDTO.setQuantityAvailable(totals.getQuantityAvailable());
+        responseDTO.setQuantityReserved(totals.getQuantityReserved());
+        return responseDTO;
     }
 
     @Transactional(readOnly = true)
     public Page<InventoryResponseDTO> getAllInventory(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<Inventory> inventoryPage = inventoryRepository.findAll(pageable);
-        return inventoryPage.map(inventoryMapper::toResponseDTO);
+        return inventoryRepository.findAllResponses(pageable);
     }
 
     @Transactional
+    @RetryOnConflict
     public InventoryResponseDTO updateInventory(UUID productId, InventoryUpdateRequestDTO updateRequestDTO) {
         Inventory inventory = getInventoryOrThrow(productId);
         int previousAvailable = inventory.getQuantityAvailable();
@@ -165,7 +188,7 @@ public class InventoryService {
                 .reason("Inventory updated")
                 .createdBy("SYSTEM")
                 .build();
-        stockMovementRepository.save(movement);
+        stockMovementJournal.record(movement);
 
 
         String payload;
@@ -197,21 +220,27 @@ public class InventoryService {
     public InventoryResponseDTO deleteInventory(UUID productId){
         Inventory inventory = getInventoryOrThrow(productId);
 
+        if(inventory.isSharded()){
+            throw new StockOperationException("Disable sharded stock before deleting inventory");
+        }
+
         if(!stockReservationRepository.findByProductIdAndStatus(productId, ReservationStatus.PENDING).isEmpty()){
             throw new StockOperationException("Cannot delete inventory with pending reservation");
         }
 
-        if(inventory.getQuantityReserved() > 0){
+        StockTotalsDTO totals = shardedStockService.getTotals(inventory);
+        if(totals.getQuantityReserved() > 0){
             throw new StockOperationException("Cannot delete inventory with reserved quantity");
         }
 
-        if(inventory.getQuantityAvailable() > 0){
+        if(totals.getQuantityAvailable() > 0){
             throw new StockOperationException("Cannot delete inventory with available quantity");
         }
 
         outboxEventRepository.deleteByAggregateIdAndPublishedFalse(inventory.getProductId());
         inventory.setDeletedAt(LocalDateTime.now());
         inventoryRepository.save(inventory);
+        redisReservationEngine.ifAvailable(engine -> engine.evictAfterCommit(productId));
         log.info("Deleted inventory for productId: {}", productId);
         return inventoryMapper.toResponseDTO(inventory);
     }
@@ -224,12 +253,13 @@ public class InventoryService {
     @Transactional(readOnly = true)
     public StockCheckResponseDTO checkStock(UUID productId, int quantity) {
             Inventory inventory = getInventoryOrThrow(productId);
+            StockTotalsDTO totals = shardedStockService.getTotals(inventory);
             return StockCheckResponseDTO.builder()
                     .productId(productId)
-                    .available(inventory.getQuantityAvailable() >= quantity)
-                    .quantityAvailable(inventory.getQuantityAvailable())
+                    .available(totals.getQuantityAvailable() >= quantity)
+                    .quantityAvailable(totals.getQuantityAvailable())
                     .quantityRequested(quantity)
-                    .quantityReserved(inventory.getQuantityReserved())
+                    .quantityReserved(totals.getQuantityReserved())
                     .build();
         }
 
@@ -249,12 +279,13 @@ public class InventoryService {
                         .quantityReserved(0)
                         .build());
             } else {
+                StockTotalsDTO totals = shardedStockService.getTotals(inventory);
                 results.add(StockCheckResponseDTO.builder()
                         .productId(item.getProductId())
-                        .available(inventory.getQuantityAvailable() >= item.getQuantity())
-                        .quantityAvailable(inventory.getQuantityAvailable())
+                        .available(totals.getQuantityAvailable() >= item.getQuantity())
+                        .quantityAvailable(totals.getQuantityAvailable())
                         .quantityRequested(item.getQuantity())
-                        .quantityReserved(inventory.getQuantityReserved())
+                        .quantityReserved(totals.getQuantityReserved())
                         .build());
             }
         }
@@ -264,32 +295,31 @@ public class InventoryService {
 
 
     @Transactional
+    @RetryOnConflict
     public InventoryResponseDTO addStock(UUID productId, int quantity, String reason) {
         if (quantity <= 0) {
             throw new StockOperationException("Quantity must be positive");
         }
+        requireSingleLocation(productId);
 
         Inventory inventory = getInventoryOrThrow(productId);
-        int previousQuantity = inventory.getQuantityAvailable();
-
-        inventory.setQuantityAvailable(inventory.getQuantityAvailable() + quantity);
-        inventoryRepository.save(inventory);
+        StockTotalsDTO totals = applyAvailableDelta(inventory, quantity);
 
         StockMovement movement = StockMovement.builder()
                 .inventoryId(inventory.getInventoryId())
                 .movementType(MovementType.STOCK_ADDED)
                 .quantity(quantity)
-                .previousQuantity(previousQuantity)
-                .newQuantity(inventory.getQuantityAvailable())
+                .previousQuantity(totals.getQuantityAvailable() - quantity)
+                .newQuantity(totals.getQuantityAvailable())
                 .referenceId(inventory.getInventoryId())
                 .referenceType("INVENTORY")
                 .reason(reason)
                 .createdBy("SYSTEM")
                 .build();
-        stockMovementRepository.save(movement);
+        stockMovementJournal.record(movement);
 
+        InventoryResponseDTO responseDTO = toLiveResponseDTO(inventory, totals);
         try {
-            InventoryResponseDTO responseDTO = inventoryMapper.toResponseDTO(inventory);
             String payload = objectMapper.writeValueAsString(responseDTO);
 
             OutboxEvent event = OutboxEvent.builder()
@@ -306,22 +336,44 @@ public class InventoryService {
         }
 
         log.info("Added {} to inventory for productId: {}, reason: {}", quantity, productId, reason);
-        return inventoryMapper.toResponseDTO(inventory);
+        return responseDTO;
     }
 
 
     @Transactional
+    @RetryOnConflict
     public InventoryResponseDTO adjustStock(UUID productId, StockAdjustmentRequestDTO adjustmentRequestDTO){
+        requireSingleLocation(productId);
+        return applyStockAdjustment(productId, adjustmentRequestDTO);
+    }
+
+    // Moves stock in one warehouse and the product total together
+    @Transactional
+    @RetryOnConflict
+    public WarehouseStockResponseDTO adjustWarehouseStock(String warehouseCode, UUID productId,
+                                                          StockAdjustmentRequestDTO adjustmentRequestDTO) {
+        // Inventory row before warehouse row, the order reservations take them in
+        Inventory inventory = inventoryRepository.findByProductIdWithLock(productId)
+                .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
+        if (inventory.isSharded()) {
+            throw new StockOperationException("Sharded products cannot be stocked per warehouse");
+        }
+        WarehouseStockResponseDTO stock = warehouseService.adjust(warehouseCode, productId, adjustmentRequestDTO.getQuantity());
+        applyStockAdjustment(productId, adjustmentRequestDTO);
+        return stock;
+    }
+
+    private InventoryResponseDTO applyStockAdjustment(UUID productId, StockAdjustmentRequestDTO adjustmentRequestDTO) {
         Inventory inventory = getInventoryOrThrow(productId);
-        int previousQuantity = inventory.getQuantityAvailable();
-        int newQuantity = inventory.getQuantityAvailable() + adjustmentRequestDTO.getQuantity();
+        int delta = adjustmentRequestDTO.getQuantity();
 
-        if (newQuantity < 0) {
+        if (!inventory.isSharded() && shardedStockService.getTotals(inventory).getQuantityAvailable() + delta < 0) {
             throw new StockOperationException("Adjustment would result in negative quantity");
         }
 
-        inventory.setQuantityAvailable(newQuantity);
-        inventoryRepository.save(inventory);
+        StockTotalsDTO totals = applyAvailableDelta(inventory, delta);
+        int newQuantity = totals.getQuantityAvailable();
+        int previousQuantity = newQuantity - delta;
 
         StockMovement movement = StockMovement.builder()
                 .inventoryId(inventory.getInventoryId())
@@ -334,10 +386,10 @@ public class InventoryService {
                 .reason(adjustmentRequestDTO.getReason())
                 .createdBy("SYSTEM")
                 .build();
-        stockMovementRepository.save(movement);
+        stockMovementJournal.record(movement);
 
+        InventoryResponseDTO responseDTO = toLiveResponseDTO(inventory, totals);
         try {
-            InventoryResponseDTO responseDTO = inventoryMapper.toResponseDTO(inventory);
             String payload = objectMapper.writeValueAsString(responseDTO);
 
             OutboxEvent event = OutboxEvent.builder()
@@ -354,13 +406,23 @@ public class InventoryService {
         }
 
         log.info("Adjusted inventory for productId: {}, reason: {}", productId, adjustmentRequestDTO.getReason());
-        return inventoryMapper.toResponseDTO(inventory);
+        return responseDTO;
     }
 
 
 //RESERVATION OPERATIONS
     @Transactional
+    @RetryOnConflict
     public List<StockReservationResponseDTO> reserveStock(UUID orderId, List<ReservationItemDTO> items) {
+        return reserveStock(orderId, items, null);
+    }
+
+    @Transactional
+    @RetryOnConflict
+    public List<StockReservationResponseDTO> reserveStock(UUID orderId, List<ReservationItemDTO> items,
+                                                          AllocationPreferenceDTO preference) {
+        validateReservationItems(items);
+        items = mergeLines(items);
         List<StockReservation> existingReservations = stockReservationRepository.findByOrderId(orderId);
         if (!existingReservations.isEmpty()) {
             log.info("Reservations already exist for orderId: {}, returning existing", orderId);
@@ -369,53 +431,80 @@ public class InventoryService {
                     .toList();
         }
 
+        Map<UUID, Inventory> inventories = lockInventories(items.stream()
+                .map(ReservationItemDTO::getProductId)
+                .toList());
         for (ReservationItemDTO item : items) {
-            Inventory inventory = inventoryRepository.findByProductId(item.getProductId())
-                    .orElseThrow(() -> new InventoryNotFoundException(item.getProductId().toString()));
+            Inventory inventory = inventories.get(item.getProductId());
+            int available = shardedStockService.getTotals(inventory).getQuantityAvailable();
 
-            if (inventory.getQuantityAvailable() < item.getQuantity()) {
+            if (available < item.getQuantity()) {
                 log.warn("Insufficient stock for productId: {}, available: {}, requested: {}",
-                        item.getProductId(), inventory.getQuantityAvailable(), item.getQuantity());
+                        item.getProductId(), available, item.getQuantity());
                 throw new StockOperationException("Insufficient stock for productId: " + item.getProductId());
             }
         }
 
         List<StockReservationResponseDTO> results = new ArrayList<>();
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(RESERVATION_EXPIRY_MINUTES);
+        Map<UUID, List<Allocation>> allocations = new HashMap<>(warehouseService.reserve(items, preference));
 
         for (ReservationItemDTO item : items) {
-            Inventory inventory = inventoryRepository.findByProductIdWithLock(item.getProductId())
-                    .orElseThrow(() -> new InventoryNotFoundException(item.getProductId().toString()));
-
-            int previousQuantity = inventory.getQuantityAvailable();
-
-            inventory.setQuantityAvailable(inventory.getQuantityAvailable() - item.getQuantity());
-            inventory.setQuantityReserved(inventory.getQuantityReserved() + item.getQuantity());
-            inventoryRepository.save(inventory);
+            Inventory inventory = inventories.get(item.getProductId());
+
+            // Sharded products reserve from one bucket row and never lock the inventory row
+            Integer bucketIndex = null;
+            StockTotalsDTO totals;
+            if (inventory.isSharded()) {
+                bucketIndex = shardedStockService.reserve(inventory, item.getQuantity());
+                totals = shardedStockService.getTotals(inventory);
+            } else {
+                if (inventory.getQuantityAvailable() < item.getQuantity()) {
+                    throw new StockOperationException("Insufficient stock for productId: " + item.getProductId());
+                }
+                inventory.setQuantityAvailable(inventory.getQuantityAvailable() - item.getQuantity());
+                inventory.setQuantityReserved(inventory.getQuantityReserved() + item.getQuantity());
+                inventoryRepository.save(inventory);
+                totals = shardedStockService.getTotals(inventory);
+            }
 
-            StockReservation reservation = StockReservation.builder()
-                    .orderId(orderId)
-                    .productId(item.getProductId())
-                    .quantityReserved(item.getQuantity())
-                    .status(ReservationStatus.PENDING)
-                    .expiresAt(expiresAt)
-                    .build();
-            StockReservation savedReservation = stockReservationRepository.save(reservation);
+            List<Allocation> parts = allocations.remove(item.getProductId());
+            if (parts == null) {
+                StockReservation reservation = StockReservation.builder()
+                        .orderId(orderId)
+                        .productId(item.getProductId())
+                        .quantityReserved(item.getQuantity())
+                        .status(ReservationStatus.PENDING)
+                        .expiresAt(expiresAt)
+                        .bucketIndex(bucketIndex)
+                        .build();
+                results.add(toReservationResponseDTO(stockReservationRepository.save(reservation)));
+            } else {
+                for (Allocation part : parts) {
+                    StockReservation reservation = StockReservation.builder()
+                            .orderId(orderId)
+                            .productId(item.getProductId())
+                            .quantityReserved(part.getQuantity())
+                            .status(ReservationStatus.PENDING)
+                            .expiresAt(expiresAt)
+                            .warehouseCode(part.getWarehouseCode())
+                            .build();
+                    results.add(toReservationResponseDTO(stockReservationRepository.save(reservation)));
+                }
+            }
 
             StockMovement movement = StockMovement.builder()
                     .inventoryId(inventory.getInventoryId())
                     .movementType(MovementType.RESERVATION)
                     .quantity(item.getQuantity())
-                    .previousQuantity(previousQuantity)
-                    .newQuantity(inventory.getQuantityAvailable())
+                    .previousQuantity(totals.getQuantityAvailable() + item.getQuantity())
+                    .newQuantity(totals.getQuantityAvailable())
                     .referenceId(orderId)
                     .referenceType("ORDER")
                     .reason("Stock reserved for order")
                     .build();
-            stockMovementRepository.save(movement);
-            checkAndPublishLowStockAlert(inventory);
-
-            results.add(toReservationResponseDTO(savedReservation));
+            stockMovementJournal.record(movement);
+            checkAndPublishLowStockAlert(inventory, totals);
         }
         publishStockReservedEvent(orderId, items);
 
@@ -424,6 +513,7 @@ public class InventoryService {
     }
 
     @Transactional
+    @RetryOnConflict
     public List<StockReservationResponseDTO> confirmReservation(UUID orderId){
         List<StockReservation> reservations = stockReservationRepository.findByOrderId(orderId);
         if(reservations.isEmpty()){
@@ -448,12 +538,24 @@ public class InventoryService {
         }
 
         LocalDateTime now = LocalDateTime.now();
+        Map<UUID, Inventory> inventories = lockInventories(reservations.stream()
+                .map(StockReservation::getProductId)
+                .toList());
 
         for(StockReservation reservation : reservations){
-            Inventory inventory = getInventoryOrThrow(reservation.getProductId());
-            int previousReserved = inventory.getQuantityReserved();
-            inventory.setQuantityReserved(inventory.getQuantityReserved() - reservation.getQuantityReserved());
-            inventoryRepository.save(inventory);
+            Inventory inventory = inventories.get(reservation.getProductId());
+            int newReserved;
+            if (inventory.isSharded()) {
+                shardedStockService.confirm(inventory.getProductId(), reservation.getBucketIndex(), reservation.getQuantityReserved());
+                newReserved = shardedStockService.getTotals(inventory).getQuantityReserved();
+            } else {
+                if (reservation.getWarehouseCode() != null) {
+                    warehouseService.confirm(reservation);
+                }
+                inventory.setQuantityReserved(inventory.getQuantityReserved() - reservation.getQuantityReserved());
+                inventoryRepository.save(inventory);
+                newReserved = inventory.getQuantityReserved();
+            }
 
             reservation.setStatus(ReservationStatus.CONFIRMED);
             reservation.setConfirmedAt(now);
@@ -463,14 +565,14 @@ public class InventoryService {
                     .inventoryId(inventory.getInventoryId())
                     .movementType(MovementType.RESERVATION_CONFIRMED)
                     .quantity(reservation.getQuantityReserved())
-                    .previousQuantity(previousReserved)
-                    .newQuantity(inventory.getQuantityReserved())
+                    .previousQuantity(newReserved + reservation.getQuantityReserved())
+                    .newQuantity(newReserved)
                     .referenceId(orderId)
                     .referenceType("ORDER")
                     .reason("Order confirmed")
                     .createdBy("SYSTEM")
                     .build();
-            stockMovementRepository.save(movement);
+            stockMovementJournal.record(movement);
         }
 
         try{
@@ -498,14 +600,15 @@ public class InventoryService {
     }
 
     @Transactional
+    @RetryOnConflict
     public void releaseReservation(UUID orderId){
         List<StockReservation> reservations = stockReservationRepository.findByOrderId(orderId);
         if(reservations.isEmpty()){
             throw new StockOperationException("No reservations found for orderId: " + orderId);
         }
         for(StockReservation reservation : reservations){
-            if(reservation.getStatus() == ReservationStatus.RELEASED){
-                log.info("Reservation already released for orderId: {}, returning existing", orderId);
+            if(reservation.getStatus() == ReservationStatus.RELEASED || reservation.getStatus() == ReservationStatus.EXPIRED){
+                log.info("Reservation already released or expired for orderId: {}, returning existing", orderId);
                 return;
             }
 
@@ -518,15 +621,25 @@ public class InventoryService {
 
 
         LocalDateTime now = LocalDateTime.now();
+        Map<UUID, Inventory> inventories = lockInventories(reservations.stream()
+                .map(StockReservation::getProductId)
+                .toList());
 
         for(StockReservation reservation : reservations){
-            Inventory inventory = getInventoryOrThrow(reservation.getProductId());
-            int previousAvailable = inventory.getQuantityAvailable();
-            int previousReserved = inventory.getQuantityReserved();
-
-            inventory.setQuantityAvailable(inventory.getQuantityAvailable() + reservation.getQuantityReserved());
-            inventory.setQuantityReserved(inventory.getQuantityReserved() - reservation.getQuantityReserved());
-            inventoryRepository.save(inventory);
+            Inventory inventory = inventories.get(reservation.getProductId());
+            int newAvailable;
+            if (inventory.isSharded()) {
+                shardedStockService.release(inventory.getProductId(), reservation.getBucketIndex(), reservation.getQuantityReserved());
+                newAvailable = shardedStockService.getTotals(inventory).getQuantityAvailable();
+            } else {
+                if (reservation.getWarehouseCode() != null) {
+                    warehouseService.release(reservation);
+                }
+                inventory.setQuantityAvailable(inventory.getQuantityAvailable() + reservation.getQuantityReserved());
+                inventory.setQuantityReserved(inventory.getQuantityReserved() - reservation.getQuantityReserved());
+                inventoryRepository.save(inventory);
+                newAvailable = inventory.getQuantityAvailable();
+            }
 
             reservation.setStatus(ReservationStatus.RELEASED);
             reservation.setReleasedAt(now);
@@ -536,14 +649,14 @@ public class InventoryService {
                     .inventoryId(inventory.getInventoryId())
                     .movementType(MovementType.RESERVATION_RELEASED)
                     .quantity(reservation.getQuantityReserved())
-                    .previousQuantity(previousAvailable)
-                    .newQuantity(inventory.getQuantityAvailable())
+                    .previousQuantity(newAvailable - reservation.getQuantityReserved())
+                    .newQuantity(newAvailable)
                     .referenceId(orderId)
                     .referenceType("ORDER")
                     .reason("Reservation released")
                     .createdBy("SYSTEM")
                     .build();
-            stockMovementRepository.save(movement);
+            stockMovementJournal.record(movement);
 
 
         }
@@ -573,41 +686,53 @@ public class InventoryService {
 //Query operations
 
     @Transactional(readOnly = true)
-    public List<StockCheckResponseDTO> getLowStockItems() {
-        List<Inventory> lowStockInventories = inventoryRepository.findAll().stream()
-                .filter(inventory -> inventory.getQuantityAvailable() <= inventory.getReorderLevel())
-                .toList();
-
-        return lowStockInventories.stream()
-                .map(inventory -> StockCheckResponseDTO.builder()
-                        .productId(inventory.getProductId())
-                        .available(false)
-                        .quantityAvailable(inventory.getQuantityAvailable())
-                        .quantityRequested(inventory.getReorderQuantity())
-                        .quantityReserved(inventory.getQuantityReserved())
-                        .build())
-                .toList();
+    public Page<StockCheckResponseDTO> getLowStockItems(int page, int size) {
+        // productId breaks ties so rows with equal quantities keep their page
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "quantityAvailable", "productId"));
+        return inventoryRepository.findLowStockChecks(pageable);
     }
 
     @Transactional(readOnly = true)
-    public List<StockMovementResponseDTO> getStockMovementHistory(UUID productId) {
-        Inventory inventory = getInventoryOrThrow(productId);
+    public StockMovementPageDTO getStockMovementHistory(UUID productId, LocalDateTime from, LocalDateTime to,
+                                                        LocalDateTime cursorCreatedAt, UUID cursorMovementId, int limit) {
+        if ((cursorCreatedAt == null) != (cursorMovementId == null)) {
+            throw new StockOperationException("cursorCreatedAt and cursorMovementId must be provided together");
+        }
 
-        List<StockMovement> movements = stockMovementRepository.findByInventoryIdOrderByCreatedAtDesc(inventory.getInventoryId());
-
-        return movements.stream()
-                .map(movement -> StockMovementResponseDTO.builder()
-                        .movementId(movement.getMovementId())
-                        .movementType(movement.getMovementType())
-                        .quantity(movement.getQuantity())
-                        .previousQuantity(movement.getPreviousQuantity())
-                        .newQuantity(movement.getNewQuantity())
-                        .referenceId(movement.getReferenceId())
-                        .referenceType(movement.getReferenceType())
-                        .reason(movement.getReason())
-                        .createdAt(movement.getCreatedAt())
-                        .build())
-                .toList();
+        Inventory inventory = getInventoryOrThrow(productId);
+        LocalDateTime rangeEnd = to != null ? to : LocalDateTime.now();
+        LocalDateTime rangeStart = from != null ? from : rangeEnd.minusDays(MOVEMENT_HISTORY_DEFAULT_DAYS);
+        int pageSize = Math.min(Math.max(limit, 1), MOVEMENT_HISTORY_MAX_LIMIT);
+
+        // One extra row tells whether another page exists without a count query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<StockMovement> movements = cursorCreatedAt == null
+                ? stockMovementRepository.findFirstPage(inventory.getInventoryId(), rangeStart, rangeEnd, pageable)
+                : stockMovementRepository.findPageAfter(inventory.getInventoryId(), rangeStart, rangeEnd,
+                        cursorCreatedAt, cursorMovementId, pageable);
+
+        boolean hasMore = movements.size() > pageSize;
+        List<StockMovement> page = hasMore ? movements.subList(0, pageSize) : movements;
+        StockMovement last = page.isEmpty() ? null : page.getLast();
+
+        return StockMovementPageDTO.builder()
+                .movements(page.stream()
+                        .map(movement -> StockMovementResponseDTO.builder()
+                                .movementId(movement.getMovementId())
+                                .movementType(movement.getMovementType())
+                                .quantity(movement.getQuantity())
+                                .previousQuantity(movement.getPreviousQuantity())
+                                .newQuantity(movement.getNewQuantity())
+                                .referenceId(movement.getReferenceId())
+                                .referenceType(movement.getReferenceType())
+                                .reason(movement.getReason())
+                                .createdAt(movement.getCreatedAt())
+                                .build())
+                        .toList())
+                .hasMore(hasMore)
+                .nextCursorCreatedAt(hasMore ? last.getCreatedAt() : null)
+                .nextCursorMovementId(hasMore ? last.getMovementId() : null)
+                .build();
     }
 
     @Transactional(readOnly = true)
@@ -627,26 +752,137 @@ public class InventoryService {
                 .toList();
     }
 
+    // Callers outside the web layer (Kafka, Redis engine, commands) skip bean validation, so quantities are checked here too
+    public void validateReservationItems(List<ReservationItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            throw new StockOperationException("No items to reserve");
+        }
+        for (ReservationItemDTO item : items) {
+            if (item == null || item.getProductId() == null) {
+                throw new StockOperationException("Reservation item without productId");
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new StockOperationException("Quantity must be positive for productId: " + item.getProductId());
+            }
+        }
+    }
+
+    // Lines for the same product are reserved as one, as the Redis engine does, so each product
+    // is written once per order and its warehouse allocation is never split across lines
+    private static List<ReservationItemDTO> mergeLines(List<ReservationItemDTO> items) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (ReservationItemDTO item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        if (quantities.size() == items.size()) {
+            return items;
+        }
+        List<ReservationItemDTO> merged = new ArrayList<>(quantities.size());
+        quantities.forEach((productId, quantity) -> merged.add(ReservationItemDTO.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build()));
+        return merged;
+    }
+
+    @Transactional
+    public void recordReservationRejected(UUID orderId, String reason) {
+        try {
+            InventoryEventDTO rejection = InventoryEventDTO.builder()
+                    .eventId(UUID.randomUUID())
+                    .eventType(EventType.STOCK_INSUFFICIENT)
+                    .orderId(orderId)
+                    .success(false)
+                    .message(reason)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+            OutboxEvent event = OutboxEvent.builder()
+                    .aggregateId(orderId)
+                    .aggregateType("ORDER")
+                    .eventType(EventType.STOCK_INSUFFICIENT)
+                    .payload(objectMapper.writeValueAsString(rejection))
+                    .published(false)
+                    .build();
+            outboxEventRepository.save(event);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing stock insufficient event: {}", e.getMessage());
+            throw new RuntimeException("Error serializing stock insufficient event");
+        }
+    }
+
         
 
 
 
 
+//SHARDED STOCK
+
+    @Transactional
+    public StockTotalsDTO enableShardedStock(UUID productId, Integer shards) {
+        return shardedStockService.enableSharding(productId, shards);
+    }
+
+    @Transactional
+    public StockTotalsDTO disableShardedStock(UUID productId) {
+        return shardedStockService.disableSharding(productId);
+    }
+
+    @Transactional
+    public StockTotalsDTO rebalanceShardedStock(UUID productId) {
+        getInventoryOrThrow(productId);
+        return shardedStockService.rebalance(productId);
+    }
+
     //HELPER METHODS
     private Inventory getInventoryOrThrow(UUID productId) {
         return inventoryRepository.findByProductId(productId)
                 .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
     }
 
+    /**
+     * Loads every product an order touches, locking the unsharded rows in productId order like
+     * the batch paths do, so writers sharing products queue instead of deadlocking. The locked
+     * rows are the first load of those entities in the transaction, so each attempt of a
+     * retried call works on the committed state rather than a stale copy that fails its version
+     * check again. Sharded rows are read without a lock; their stock lives in the bucket rows.
+     */
+    private Map<UUID, Inventory> lockInventories(Collection<UUID> productIds) {
+        Set<UUID> sharded = inventoryRepository.findShardedProductIdsIn(productIds);
+        List<UUID> unsharded = productIds.stream()
+                .filter(productId -> !sharded.contains(productId))
+                .distinct()
+                .toList();
+        Map<UUID, Inventory> inventories = new HashMap<>();
+        if (!unsharded.isEmpty()) {
+            inventoryRepository.findByProductIdInWithLock(unsharded)
+                    .forEach(inventory -> inventories.put(inventory.getProductId(), inventory));
+        }
+        if (!sharded.isEmpty()) {
+            inventoryRepository.findByProductIdIn(sharded)
+                    .forEach(inventory -> inventories.put(inventory.getProductId(), inventory));
+        }
+        for (UUID productId : productIds) {
+            if (!inventories.containsKey(productId)) {
+                throw new InventoryNotFoundException(productId.toString());
+            }
+        }
+        return inventories;
+    }
+
     private void checkAndPublishLowStockAlert(Inventory inventory) {
-        if (inventory.getQuantityAvailable() <= inventory.getReorderLevel()) {
+        checkAndPublishLowStockAlert(inventory, shardedStockService.getTotals(inventory));
+    }
+
+    private void checkAndPublishLowStockAlert(Inventory inventory, StockTotalsDTO totals) {
+        if (totals.getQuantityAvailable() <= inventory.getReorderLevel()
+                && lowStockAlertDebouncer.tryAcquire(inventory.getProductId())) {
             log.warn("Low stock detected for productId: {}, available: {}, reorderLevel: {}",
                     inventory.getProductId(),
-                    inventory.getQuantityAvailable(),
+                    totals.getQuantityAvailable(),
                     inventory.getReorderLevel());
 
             try {
-                InventoryResponseDTO responseDTO = inventoryMapper.toResponseDTO(inventory);
+                InventoryResponseDTO responseDTO = toLiveResponseDTO(inventory, totals);
                 String payload = objectMapper.writeValueAsString(responseDTO);
 
                 OutboxEvent event = OutboxEvent.builder()
@@ -663,6 +899,37 @@ public class InventoryService {
             }
         }
     }
+
+    private void requireSingleLocation(UUID productId) {
+        if (warehouseService.isWarehouseManaged(productId)) {
+            throw new StockOperationException("Stock for productId: " + productId + " is held per warehouse, adjust it through its warehouse");
+        }
+    }
+
+    // Sharded products take the change on their buckets; the row is left to the aggregate sync
+    private StockTotalsDTO applyAvailableDelta(Inventory inventory, int delta) {
+        if (inventory.isSharded()) {
+            return shardedStockService.adjust(inventory, delta);
+        }
+        // While Redis owns the counters the row takes a relative update, so it cannot race the change applier
+        RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+        StockTotalsDTO redisTotals = engine != null ? engine.adjustAvailable(inventory.getProductId(), delta) : null;
+        if (redisTotals != null) {
+            inventoryRepository.addAvailableStock(inventory.getProductId(), delta, LocalDateTime.now());
+            return redisTotals;
+        }
+        inventory.setQuantityAvailable(inventory.getQuantityAvailable() + delta);
+        inventoryRepository.save(inventory);
+        return shardedStockService.getTotals(inventory);
+    }
+
+    private InventoryResponseDTO toLiveResponseDTO(Inventory inventory, StockTotalsDTO totals) {
+        InventoryResponseDTO responseDTO = inventoryMapper.toResponseDTO(inventory);
+        responseDTO.setQuantityAvailable(totals.getQuantityAvailable());
+        responseDTO.setQuantityReserved(totals.getQuantityReserved());
+        return responseDTO;
+    }
+
     private boolean isEmptyUpdate(InventoryUpdateRequestDTO updateRequestDTO) {
         return updateRequestDTO.getProductName() == null
                 && updateRequestDTO.getReorderLevel() == null
@@ -675,6 +942,7 @@ public class InventoryService {
                 .orderId(reservation.getOrderId())
                 .productId(reservation.getProductId())
                 .quantityReserved(reservation.getQuantityReserved())
+                .warehouseCode(reservation.getWarehouseCode())
                 .reservationStatus(reservation.getStatus())
                 .expiresAt(reservation.getExpiresAt())
                 .createdAt(reservation.getCreatedAt())
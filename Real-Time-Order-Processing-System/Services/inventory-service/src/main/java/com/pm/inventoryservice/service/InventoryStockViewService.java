@@ -0,0 +1,128 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.exception.InventoryNotFoundException;
+import com.pm.inventoryservice.exception.StockViewUnavailableException;
+import com.pm.inventoryservice.kafka.streams.InventoryStockTopology;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serves stock reads from the Kafka Streams store instead of Postgres. The store is
+ * partitioned like inventory-events, so a key may live on another instance: the owner is
+ * looked up from the streams metadata and asked over HTTP, falling back to its standbys when
+ * it does not answer. Local reads accept stale stores, which lets a standby answer while the
+ * group is rebalancing; the snapshot's updatedAt tells the caller how fresh it is.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.streams.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryStockViewService {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+    private final RestClient.Builder restClientBuilder;
+
+    @Value("${inventory.streams.application-server:localhost:8081}")
+    private String applicationServer;
+
+    @Value("${inventory.streams.query-timeout:PT2S}")
+    private Duration queryTimeout;
+
+    private volatile RestClient restClient;
+
+    public InventoryResponseDTO getStock(UUID productId) {
+        KafkaStreams streams = runningStreams();
+        KeyQueryMetadata metadata = streams.queryMetadataForKey(
+                InventoryStockTopology.STOCK_STORE, productId.toString(), Serdes.String().serializer());
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new StockViewUnavailableException("Stock view has no owner for productId: " + productId);
+        }
+
+        HostInfo self = HostInfo.buildFromEndpoint(applicationServer);
+        List<HostInfo> hosts = new ArrayList<>(1 + metadata.standbyHosts().size());
+        hosts.add(metadata.activeHost());
+        hosts.addAll(metadata.standbyHosts());
+
+        boolean notFound = false;
+        for (HostInfo host : hosts) {
+            try {
+                return self.equals(host) ? getLocalStock(productId) : fetchRemote(host, productId);
+            } catch (InventoryNotFoundException | HttpClientErrorException.NotFound e) {
+                notFound = true;
+            } catch (StockViewUnavailableException | RestClientException e) {
+                log.warn("Stock view host {}:{} could not answer for product {}: {}",
+                        host.host(), host.port(), productId, e.getMessage());
+            }
+        }
+        if (notFound) {
+            throw new InventoryNotFoundException("Inventory not found for productId: " + productId);
+        }
+        throw new StockViewUnavailableException("No stock view host answered for productId: " + productId);
+    }
+
+    public InventoryResponseDTO getLocalStock(UUID productId) {
+        InventoryResponseDTO snapshot;
+        try {
+            ReadOnlyKeyValueStore<String, InventoryResponseDTO> store = runningStreams().store(
+                    StoreQueryParameters.fromNameAndType(InventoryStockTopology.STOCK_STORE,
+                                    QueryableStoreTypes.<String, InventoryResponseDTO>keyValueStore())
+                            .enableStaleStores());
+            snapshot = store.get(productId.toString());
+        } catch (InvalidStateStoreException e) {
+            throw new StockViewUnavailableException("Stock view store is not queryable: " + e.getMessage());
+        }
+        if (snapshot == null) {
+            throw new InventoryNotFoundException("Inventory not found for productId: " + productId);
+        }
+        return snapshot;
+    }
+
+    private InventoryResponseDTO fetchRemote(HostInfo host, UUID productId) {
+        return restClient().get()
+                .uri("http://{host}:{port}/api/inventory/stock-view/{productId}/local", host.host(), host.port(), productId)
+                .retrieve()
+                .body(InventoryResponseDTO.class);
+    }
+
+    private KafkaStreams runningStreams() {
+        KafkaStreams streams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (streams == null || !streams.state().isRunningOrRebalancing()) {
+            throw new StockViewUnavailableException("Stock view is not running");
+        }
+        return streams;
+    }
+
+    private RestClient restClient() {
+        RestClient client = restClient;
+        if (client == null) {
+            SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+            requestFactory.setConnectTimeout(queryTimeout);
+            requestFactory.setReadTimeout(queryTimeout);
+            client = restClientBuilder.clone().requestFactory(requestFactory).build();
+            restClient = client;
+        }
+        return client;
+    }
+}
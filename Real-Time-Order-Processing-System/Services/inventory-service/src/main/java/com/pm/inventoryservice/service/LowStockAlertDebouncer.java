@@ -0,0 +1,65 @@
+package com.pm.inventoryservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lets at most one LOW_STOCK_ALERT per product through in each debounce window. A claim made
+ * inside a transaction is handed back if that transaction rolls back, so a failed reservation
+ * does not silence the next real alert.
+ */
+@Component
+@Slf4j
+public class LowStockAlertDebouncer {
+
+    private final ConcurrentMap<UUID, Long> lastAlertAt = new ConcurrentHashMap<>();
+
+    @Value("${inventory.low-stock-alert.debounce:PT5M}")
+    private Duration window;
+
+    public boolean tryAcquire(UUID productId) {
+        long now = System.nanoTime();
+        long windowNanos = window.toNanos();
+        Long[] claimed = {null};
+
+        lastAlertAt.compute(productId, (id, last) -> {
+            if (last != null && now - last < windowNanos) {
+                return last;
+            }
+            claimed[0] = now;
+            return now;
+        });
+
+        if (claimed[0] == null) {
+            log.debug("Low stock alert for productId: {} suppressed within {}", productId, window);
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            long claimedAt = claimed[0];
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        lastAlertAt.remove(productId, claimedAt);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.low-stock-alert.cleanup-interval-ms:600000}")
+    public void evictExpired() {
+        long cutoff = System.nanoTime() - window.toNanos();
+        lastAlertAt.values().removeIf(last -> last < cutoff);
+    }
+}
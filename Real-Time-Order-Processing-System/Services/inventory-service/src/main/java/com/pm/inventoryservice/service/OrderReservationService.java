@@ -0,0 +1,126 @@
+package com.pm.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.eventDTO.OrderCreatedEventDTO;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.exception.InventoryNotFoundException;
+import com.pm.inventoryservice.exception.StockOperationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Turns ORDER_CREATED events into stock reservations. Orders are reserved in groups sharing
+ * one transaction; if any order in a group fails, the group is rolled back and replayed one
+ * order per transaction so a single rejection does not hold back its neighbours. An order that
+ * still fails for a reason other than a business rejection is sent to the order dead-letter
+ * topic, so it cannot fail the whole poll and have it redelivered.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderReservationService {
+
+    private static final String FAILURE_REASON_HEADER = "failureReason";
+
+    private final InventoryService inventoryService;
+    private final ReservationEngineRouter reservationEngineRouter;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.kafka.order-events.group-size:50}")
+    private int groupSize;
+
+    @Value("${inventory.kafka.topics.order-events-dlq:order-events-dlq}")
+    private String deadLetterTopic;
+
+    public void reserveOrders(List<OrderCreatedEventDTO> orders) {
+        List<OrderCreatedEventDTO> valid = new ArrayList<>(orders.size());
+        for (OrderCreatedEventDTO order : orders) {
+            String violations = itemViolations(order.getOrderItems());
+            if (violations.isEmpty()) {
+                valid.add(order);
+            } else {
+                log.warn("Rejected reservation for orderId: {}, invalid items: {}", order.getOrderId(), violations);
+                inventoryService.recordReservationRejected(order.getOrderId(), "Invalid order items: " + violations);
+            }
+        }
+
+        // Redis holds are atomic per order already; grouping them in a database transaction buys nothing
+        if (reservationEngineRouter.isRedisServing()) {
+            valid.forEach(this::reserveIndividually);
+            return;
+        }
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        for (int start = 0; start < valid.size(); start += groupSize) {
+            List<OrderCreatedEventDTO> group = valid.subList(start, Math.min(start + groupSize, valid.size()));
+            try {
+                template.executeWithoutResult(status -> group.forEach(order ->
+                        inventoryService.reserveStock(order.getOrderId(), order.getOrderItems())));
+            } catch (RuntimeException e) {
+                log.info("Reservation group of {} orders rolled back ({}), retrying individually", group.size(), e.getMessage());
+                group.forEach(this::reserveIndividually);
+            }
+        }
+    }
+
+    private void reserveIndividually(OrderCreatedEventDTO order) {
+        try {
+            reservationEngineRouter.reserveStock(order.getOrderId(), order.getOrderItems(), null);
+        } catch (StockOperationException | InventoryNotFoundException e) {
+            log.warn("Rejected reservation for orderId: {}, reason: {}", order.getOrderId(), e.getMessage());
+            inventoryService.recordReservationRejected(order.getOrderId(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to reserve stock for orderId: {}, moving to dead-letter topic, error: {}",
+                    order.getOrderId(), e.getMessage());
+            deadLetter(order, e);
+        }
+    }
+
+    // Bean validation does not run on the Kafka path, so the item constraints are checked here
+    private String itemViolations(List<ReservationItemDTO> items) {
+        Set<String> violations = new TreeSet<>();
+        for (ReservationItemDTO item : items) {
+            if (item == null) {
+                violations.add("orderItems must not contain null");
+                continue;
+            }
+            for (ConstraintViolation<ReservationItemDTO> violation : validator.validate(item)) {
+                violations.add(violation.getPropertyPath() + " " + violation.getMessage());
+            }
+        }
+        return String.join(", ", violations);
+    }
+
+    // Waits for the send, so the poll is only acknowledged once the order is safely on the dead-letter topic
+    private void deadLetter(OrderCreatedEventDTO order, RuntimeException cause) {
+        try {
+            ProducerRecord<String, String> record = new ProducerRecord<>(deadLetterTopic,
+                    order.getOrderId().toString(), objectMapper.writeValueAsString(order));
+            record.headers().add(FAILURE_REASON_HEADER,
+                    String.valueOf(cause.getMessage()).getBytes(StandardCharsets.UTF_8));
+            kafkaTemplate.send(record).join();
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing order event for orderId: {}: {}", order.getOrderId(), e.getMessage());
+            throw new RuntimeException("Error serializing order event for dead-letter topic");
+        }
+    }
+}
@@ -1,20 +1,46 @@
 package com.pm.inventoryservice.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pm.inventoryservice.model.DeadLetterEvent;
+import com.pm.inventoryservice.model.EventType;
 import com.pm.inventoryservice.model.OutboxEvent;
 import com.pm.inventoryservice.model.ProcessResult;
 import com.pm.inventoryservice.repository.DeadLetterEventRepository;
 import com.pm.inventoryservice.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox events with every send of a batch in flight at once. The batch's
+ * completions are collected together and the published flags, retry counts and dead
+ * letters are written in one transaction per batch.
+ *
+ * Events that carry a full inventory snapshot are compacted before sending: within a batch
+ * only the newest event per product and type is published, and the older ones are marked
+ * published as superseded since the newest already carries the final state.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,105 +48,204 @@ public class OutBoxProcessor {
     private final OutboxEventRepository outboxEventRepository;
     private final DeadLetterEventRepository deadLetterEventRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
 
     private static final int MAX_RETRIES = 3;
     private static final String MAIN_TOPIC = "inventory-events";
     private static final String DLQ_TOPIC = "inventory-events-dlq";
+    private static final String EVENT_TYPE_HEADER = "eventType";
+    private static final Set<EventType> SNAPSHOT_EVENT_TYPES = Set.of(
+            EventType.STOCK_ADDED,
+            EventType.STOCK_ADJUSTED,
+            EventType.INVENTORY_UPDATED,
+            EventType.LOW_STOCK_ALERT,
+            EventType.STOCK_LEVEL_CHANGED);
+
+    @Value("${inventory.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${inventory.outbox.send-timeout-ms:125000}")
+    private long sendTimeoutMs;
+
+    @Value("${inventory.outbox.compaction.enabled:true}")
+    private boolean compactionEnabled;
 
-    @Scheduled(fixedRate = 5000)
+    @Scheduled(fixedDelayString = "${inventory.outbox.poll-interval-ms:1000}", scheduler = "outboxScheduler")
     public void process() {
-        List<OutboxEvent> events = outboxEventRepository.findTop100ByPublishedFalseOrderByCreatedAt();
+        Map<ProcessResult, Integer> totals = new EnumMap<>(ProcessResult.class);
+        int batches = 0;
+        int fetched;
+        do {
+            fetched = processBatch(totals);
+            batches++;
+        } while (fetched == batchSize && batches < maxBatchesPerRun && !Thread.currentThread().isInterrupted());
+
+        if (!totals.isEmpty()) {
+            log.info("Outbox processing complete - Success: {}, Failed: {}, DLQ: {}, Superseded: {}",
+                    totals.getOrDefault(ProcessResult.SUCCESS, 0),
+                    totals.getOrDefault(ProcessResult.FAILED, 0),
+                    totals.getOrDefault(ProcessResult.MOVED_TO_DLQ, 0),
+                    totals.getOrDefault(ProcessResult.SUPERSEDED, 0));
+        }
+    }
 
-        if (events.isEmpty()) {
+    private int processBatch(Map<ProcessResult, Integer> totals) {
+        List<OutboxEvent> fetched = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (fetched.isEmpty()) {
             log.debug("No outbox events found");
-            return;
+            return 0;
         }
 
-        log.info("Processing {} unpublished events", events.size());
-        int successCount = 0;
-        int failureCount = 0;
-        int dlqCount = 0;
-
-        for(OutboxEvent event : events) {
-            ProcessResult result = processEvent(event);
-            switch (result) {
-                case SUCCESS -> successCount++;
-                case FAILED -> failureCount++;
-                case MOVED_TO_DLQ -> dlqCount++;
+        List<UUID> superseded = new ArrayList<>();
+        List<OutboxEvent> events = compactionEnabled ? compact(fetched, superseded) : fetched;
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(send(MAIN_TOPIC, event));
+        }
+        awaitAll(sends);
+
+        List<UUID> published = new ArrayList<>(superseded);
+        List<UUID> retries = new ArrayList<>();
+        List<OutboxEvent> exhausted = new ArrayList<>();
+        List<Throwable> exhaustedCauses = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            Throwable failure = failureOf(sends.get(i));
+            if (failure == null) {
+                published.add(event.getEventId());
+            } else if (event.getRetryCount() >= MAX_RETRIES) {
+                exhausted.add(event);
+                exhaustedCauses.add(failure);
+            } else {
+                retries.add(event.getEventId());
+                log.warn("Failed to publish event: {} (retry {}/{}): {}",
+                        event.getEventId(), event.getRetryCount() + 1, MAX_RETRIES, failure.getMessage());
             }
         }
 
-        if (successCount > 0 || failureCount > 0 || dlqCount > 0) {
-            log.info("Outbox processing complete - Success: {}, Failed: {}, DLQ: {}",
-                    successCount, failureCount, dlqCount);
-        }
+        List<DeadLetterEvent> deadLetters = moveToDeadLetterQueue(exhausted, exhaustedCauses);
+        exhausted.forEach(event -> published.add(event.getEventId()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxEventRepository.markPublished(published, LocalDateTime.now());
+            }
+            if (!retries.isEmpty()) {
+                outboxEventRepository.incrementRetryCount(retries);
+            }
+            if (!deadLetters.isEmpty()) {
+                deadLetterEventRepository.saveAll(deadLetters);
+            }
+        });
+
+        totals.merge(ProcessResult.SUCCESS, published.size() - exhausted.size() - superseded.size(), Integer::sum);
+        totals.merge(ProcessResult.FAILED, retries.size(), Integer::sum);
+        totals.merge(ProcessResult.MOVED_TO_DLQ, exhausted.size(), Integer::sum);
+        totals.merge(ProcessResult.SUPERSEDED, superseded.size(), Integer::sum);
+        return fetched.size();
     }
 
-    @Transactional
-    protected ProcessResult processEvent(OutboxEvent event) {
-        try {
-            kafkaTemplate.send(MAIN_TOPIC,
-                    event.getAggregateId().toString(),
-                    event.getPayload())
-                .get();
-
-            event.setPublished(true);
-            event.setPublishedAt(LocalDateTime.now());
-            outboxEventRepository.save(event);
-
-            log.debug("Successfully published event: {}", event.getEventId());
-            return ProcessResult.SUCCESS;
-
-        } catch(Exception e) {
-            if(event.getRetryCount() >= MAX_RETRIES) {
-                moveToDeadLetterQueue(event, e);
-                log.error("Event {} moved to DLQ after {} retries",
-                        event.getEventId(), event.getRetryCount());
-                return ProcessResult.MOVED_TO_DLQ;
+    // Keeps the newest snapshot event per (aggregate, type); events arrive ordered by createdAt
+    private List<OutboxEvent> compact(List<OutboxEvent> events, List<UUID> superseded) {
+        Map<String, Integer> latestIndex = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            if (SNAPSHOT_EVENT_TYPES.contains(event.getEventType())) {
+                latestIndex.put(event.getAggregateId() + ":" + event.getEventType(), i);
+            }
+        }
+
+        List<OutboxEvent> kept = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            Integer latest = SNAPSHOT_EVENT_TYPES.contains(event.getEventType())
+                    ? latestIndex.get(event.getAggregateId() + ":" + event.getEventType())
+                    : null;
+            if (latest != null && latest != i) {
+                superseded.add(event.getEventId());
             } else {
-                event.setRetryCount(event.getRetryCount() + 1);
-                outboxEventRepository.save(event);
-                log.warn("Failed to publish event: {} (retry {}/{})",
-                        event.getEventId(), event.getRetryCount(), MAX_RETRIES, e);
-                return ProcessResult.FAILED;
+                kept.add(event);
             }
         }
+        return kept;
     }
 
-    @Transactional
-    protected void moveToDeadLetterQueue(OutboxEvent event, Exception exception) {
-        try {
-            kafkaTemplate.send(DLQ_TOPIC,
-                    event.getAggregateId().toString(),
-                    event.getPayload())
-                .get();
+    // Exhausted events are marked published whether or not the DLQ send succeeds, to prevent infinite retries
+    private List<DeadLetterEvent> moveToDeadLetterQueue(List<OutboxEvent> events, List<Throwable> causes) {
+        if (events.isEmpty()) {
+            return List.of();
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(send(DLQ_TOPIC, event));
+        }
+        awaitAll(sends);
+
+        List<DeadLetterEvent> deadLetters = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            Throwable dlqFailure = failureOf(sends.get(i));
+            if (dlqFailure != null) {
+                log.error("CRITICAL: Failed to move event {} to DLQ! Marking as published to prevent infinite retries.",
+                        event.getEventId(), dlqFailure);
+                continue;
+            }
 
-            DeadLetterEvent dlqEvent = DeadLetterEvent.builder()
+            deadLetters.add(DeadLetterEvent.builder()
                     .originalEventId(event.getEventId())
                     .aggregateId(event.getAggregateId())
                     .eventType(event.getEventType())
                     .payload(event.getPayload())
                     .retryCount(event.getRetryCount())
-                    .failureReason(exception.getMessage())
+                    .failureReason(causes.get(i).getMessage())
                     .resolved(false)
-                    .build();
-
-            deadLetterEventRepository.save(dlqEvent);
-            event.setPublished(true);
-            event.setPublishedAt(LocalDateTime.now());
-            outboxEventRepository.save(event);
-
-            log.info("Event {} moved to DLQ after {} retries. Reason: {}",
-                    event.getEventId(), event.getRetryCount(), exception.getMessage());
-
-        } catch (Exception dlqException) {
-            log.error("CRITICAL: Failed to move event {} to DLQ! Marking as published to prevent infinite retries.",
-                    event.getEventId(), dlqException);
-            event.setPublished(true);
-            event.setPublishedAt(LocalDateTime.now());
-            outboxEventRepository.save(event);
+                    .build());
+            log.error("Event {} moved to DLQ after {} retries. Reason: {}",
+                    event.getEventId(), event.getRetryCount(), causes.get(i).getMessage());
+        }
+        return deadLetters;
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(String topic, OutboxEvent event) {
+        try {
+            ProducerRecord<String, String> record = new ProducerRecord<>(topic,
+                    event.getAggregateId().toString(), event.getPayload());
+            record.headers().add(EVENT_TYPE_HEADER, event.getEventType().name().getBytes(StandardCharsets.UTF_8));
+            return kafkaTemplate.send(record);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void awaitAll(List<CompletableFuture<SendResult<String, String>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Individual outcomes are inspected by the caller
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
     }
 
+    // Sends still pending after the timeout count as failed and are retried on a later cycle
+    private static Throwable failureOf(CompletableFuture<SendResult<String, String>> send) {
+        if (!send.isDone()) {
+            return new TimeoutException("Send did not complete in time");
+        }
+        if (!send.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            send.join();
+            return null;
+        } catch (Exception e) {
+            return e.getCause() != null ? e.getCause() : e;
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.dto.response.StockCheckResponseDTO;
+import com.pm.inventoryservice.exception.InventoryNotFoundException;
+import com.pm.inventoryservice.repository.ReactiveInventoryRepository;
+import com.pm.inventoryservice.repository.ReactiveInventoryRepository.StockRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only availability queries that never block a thread: rows come from R2DBC and, while
+ * reservations are served from Redis, live counters come from reactive Redis. Results match
+ * the blocking InventoryService reads, including bucket totals for sharded products.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveStockQueryService {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redis/read-stock.lua"), List.class);
+
+    private final ReactiveInventoryRepository reactiveInventoryRepository;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+
+    @Value("${inventory.redis-reservations.enabled:false}")
+    private boolean redisReservationsEnabled;
+
+    @Value("${inventory.reactive.batch-chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${inventory.reactive.min-stream-interval:PT0.5S}")
+    private Duration minStreamInterval;
+
+    public Mono<InventoryResponseDTO> getInventoryByProductId(UUID productId) {
+        return reactiveInventoryRepository.findByProductId(productId)
+                .switchIfEmpty(Mono.error(() -> new InventoryNotFoundException(productId.toString())))
+                .flatMap(this::withLiveTotals);
+    }
+
+    public Mono<InventoryResponseDTO> getInventoryBySku(String sku) {
+        return reactiveInventoryRepository.findBySku(sku)
+                .switchIfEmpty(Mono.error(() -> new InventoryNotFoundException(sku)))
+                .flatMap(this::withLiveTotals);
+    }
+
+    // Products that do not exist are left out
+    public Flux<InventoryResponseDTO> getInventories(Collection<UUID> productIds) {
+        return reactiveInventoryRepository.findByProductIdIn(productIds)
+                .flatMap(this::withLiveTotals);
+    }
+
+    public Mono<StockCheckResponseDTO> checkStock(UUID productId, int quantity) {
+        return getInventoryByProductId(productId)
+                .map(inventory -> toStockCheck(productId, quantity, inventory));
+    }
+
+    // Chunks are queried one at a time and only as the subscriber asks for more
+    public Flux<StockCheckResponseDTO> checkStockBatch(List<ReservationItemDTO> items) {
+        return Flux.fromIterable(items)
+                .buffer(batchChunkSize)
+                .concatMap(this::checkChunk);
+    }
+
+    // Emits on subscribe and then whenever the answer changes; a slow client only ever gets the newest answer.
+    // The interval comes from the client, so it is held to a floor to bound the queries each connection makes
+    public Flux<StockCheckResponseDTO> streamStockCheck(UUID productId, int quantity, Duration interval) {
+        Duration pollEvery = interval.compareTo(minStreamInterval) < 0 ? minStreamInterval : interval;
+        return Flux.interval(Duration.ZERO, pollEvery)
+                .onBackpressureDrop()
+                .concatMap(tick -> checkStock(productId, quantity), 1)
+                .distinctUntilChanged()
+                .onBackpressureLatest();
+    }
+
+    private Flux<StockCheckResponseDTO> checkChunk(List<ReservationItemDTO> chunk) {
+        Set<UUID> productIds = chunk.stream().map(ReservationItemDTO::getProductId).collect(Collectors.toSet());
+        return reactiveInventoryRepository.findByProductIdIn(productIds)
+                .flatMap(this::withLiveTotals)
+                .collectMap(InventoryResponseDTO::getProductId, Function.identity())
+                .flatMapIterable(inventories -> chunk.stream()
+                        .map(item -> toStockCheck(item, inventories))
+                        .toList());
+    }
+
+    private Mono<InventoryResponseDTO> withLiveTotals(StockRow row) {
+        InventoryResponseDTO inventory = row.getInventory();
+        if (!redisReservationsEnabled || row.isSharded()) {
+            return Mono.just(inventory);
+        }
+        List<String> keys = List.of(RedisReservationEngine.MODE_KEY, RedisReservationEngine.stockKey(inventory.getProductId()));
+        return reactiveRedisTemplate.execute(READ_SCRIPT, keys)
+                .next()
+                .map(reply -> {
+                    if ("OK".equals(reply.get(0))) {
+                        inventory.setQuantityAvailable(Integer.parseInt(String.valueOf(reply.get(1))));
+                        inventory.setQuantityReserved(Integer.parseInt(String.valueOf(reply.get(2))));
+                    }
+                    return inventory;
+                })
+                .defaultIfEmpty(inventory);
+    }
+
+    static StockCheckResponseDTO toStockCheck(UUID productId, int quantity, InventoryResponseDTO inventory) {
+        return StockCheckResponseDTO.builder()
+                .productId(productId)
+                .available(inventory.getQuantityAvailable() >= quantity)
+                .quantityAvailable(inventory.getQuantityAvailable())
+                .quantityRequested(quantity)
+                .quantityReserved(inventory.getQuantityReserved())
+                .build();
+    }
+
+    private static StockCheckResponseDTO toStockCheck(ReservationItemDTO item, Map<UUID, InventoryResponseDTO> inventories) {
+        InventoryResponseDTO inventory = inventories.get(item.getProductId());
+        if (inventory == null) {
+            return StockCheckResponseDTO.builder()
+                    .productId(item.getProductId())
+                    .available(false)
+                    .quantityAvailable(0)
+                    .quantityRequested(item.getQuantity())
+                    .quantityReserved(0)
+                    .build();
+        }
+        return toStockCheck(item.getProductId(), item.getQuantity(), inventory);
+    }
+}
@@ -0,0 +1,590 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.ReservationEngineStatusDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
+import com.pm.inventoryservice.exception.InvalidReservationStateException;
+import com.pm.inventoryservice.exception.InventoryNotFoundException;
+import com.pm.inventoryservice.exception.ReservationEngineUnavailableException;
+import com.pm.inventoryservice.exception.StockOperationException;
+import com.pm.inventoryservice.model.Inventory;
+import com.pm.inventoryservice.model.ReservationEngineMode;
+import com.pm.inventoryservice.model.ReservationStatus;
+import com.pm.inventoryservice.model.StockReservation;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import com.pm.inventoryservice.repository.StockReservationRepository;
+import com.pm.inventoryservice.repository.WarehouseStockRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Reservation engine that decides holds in Redis. Each product's available and reserved
+ * counters live in a hash and are changed by Lua scripts, so a multi-item hold is checked and
+ * applied atomically in a single round trip without touching the database. Every change is
+ * appended to a Redis stream by the same script, and {@link RedisStockChangeApplier} replays
+ * that stream into the inventory and stock_reservation tables.
+ *
+ * The engine only serves while the shared mode key says REDIS. Switching in either direction
+ * passes through DRAINING, during which holds and stock changes are refused, so Redis and the
+ * database never both accept holds for the same stock. All keys carry the {inv} hash tag and
+ * therefore live in one cluster slot, which the scripts rely on when they derive stock keys
+ * from a hold.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.redis-reservations.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisReservationEngine {
+
+    static final String MODE_KEY = "{inv}:mode";
+    static final String STREAM_KEY = "{inv}:changes";
+    static final String APPLIED_KEY = "{inv}:applied";
+    static final String EXPIRY_KEY = "{inv}:hold-expiry";
+    static final String STOCK_PREFIX = "{inv}:stock:";
+    static final String HOLD_PREFIX = "{inv}:hold:";
+    static final String SETTLED_PREFIX = "{inv}:settled:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RESERVE_SCRIPT = script("reserve-stock.lua");
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SETTLE_SCRIPT = script("settle-reservation.lua");
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADJUST_SCRIPT = script("adjust-available.lua");
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT = script("read-stock.lua");
+    private static final RedisScript<Long> SEED_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redis/seed-stock.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+
+    @Value("${inventory.redis-reservations.hold-ttl:PT15M}")
+    private Duration holdTtl;
+
+    @Value("${inventory.redis-reservations.settled-ttl:PT24H}")
+    private Duration settledTtl;
+
+    @Value("${inventory.redis-reservations.switch-grace:PT5S}")
+    private Duration switchGrace;
+
+    @Value("${inventory.redis-reservations.drain-timeout:PT60S}")
+    private Duration drainTimeout;
+
+    @Value("${inventory.redis-reservations.expiry-batch-size:500}")
+    private int expiryBatchSize;
+
+    public ReservationEngineMode getMode() {
+        String mode = redisTemplate.opsForValue().get(MODE_KEY);
+        return mode != null ? ReservationEngineMode.valueOf(mode) : ReservationEngineMode.DATABASE;
+    }
+
+    public boolean isServing() {
+        return getMode() != ReservationEngineMode.DATABASE;
+    }
+
+    public void requireDatabaseMode(String operation) {
+        if (isServing()) {
+            throw new StockOperationException(operation + " is unavailable while reservations are served from Redis");
+        }
+    }
+
+    /**
+     * Holds stock for every item of an order or for none of them. Counters missing from Redis
+     * are seeded from the inventory row on first use.
+     *
+     * @return the holds, or null when reservations are served by the database
+     */
+    public List<StockReservationResponseDTO> reserve(UUID orderId, List<ReservationItemDTO> items) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (ReservationItemDTO item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<UUID> productIds = new ArrayList<>(quantities.keySet());
+        LocalDateTime createdAt = LocalDateTime.now();
+        LocalDateTime expiresAt = createdAt.plus(holdTtl);
+
+        // Orders settled before Redis served them, or whose settled marker has lapsed, are only known to the database
+        if (stockReservationRepository.existsByOrderId(orderId)
+                && !Boolean.TRUE.equals(redisTemplate.hasKey(holdKey(orderId)))
+                && !Boolean.TRUE.equals(redisTemplate.hasKey(SETTLED_PREFIX + orderId))) {
+            log.info("Reservations already exist for orderId: {}, returning existing", orderId);
+            return stockReservationRepository.findByOrderId(orderId).stream()
+                    .map(RedisReservationEngine::toResponseDTO)
+                    .toList();
+        }
+
+        List<String> keys = new ArrayList<>(List.of(MODE_KEY, holdKey(orderId), EXPIRY_KEY, STREAM_KEY,
+                SETTLED_PREFIX + orderId));
+        List<String> args = new ArrayList<>(List.of(orderId.toString(),
+                String.valueOf(toEpochMilli(expiresAt)), String.valueOf(toEpochMilli(createdAt))));
+        List<HoldLine> lines = new ArrayList<>(productIds.size());
+        for (UUID productId : productIds) {
+            HoldLine line = new HoldLine(productId, quantities.get(productId), List.of(UUID.randomUUID()));
+            lines.add(line);
+            keys.add(stockKey(productId));
+            args.addAll(List.of(productId.toString(), String.valueOf(line.getQuantity()),
+                    line.getReservationIds().get(0).toString()));
+        }
+
+        // Each pass can seed at most one missing product before the script is run again
+        for (int attempt = 0; attempt <= productIds.size(); attempt++) {
+            List<String> reply = run(RESERVE_SCRIPT, keys, args);
+            switch (reply.get(0)) {
+                case "OK":
+                    log.debug("Held stock in Redis for orderId: {}, products: {}", orderId, productIds.size());
+                    return toResponseDTOs(orderId, lines, ReservationStatus.PENDING, expiresAt, createdAt);
+                case "EXISTS":
+                    log.info("Reservations already exist for orderId: {}, returning existing", orderId);
+                    return currentHold(orderId);
+                case "SETTLED":
+                    log.info("Reservations already settled for orderId: {}, returning existing", orderId);
+                    return toResponseDTOs(orderId, parseItems(reply.get(2)), ReservationStatus.valueOf(reply.get(1)), null, null);
+                case "INSUFFICIENT":
+                    UUID shortProduct = productIds.get(Integer.parseInt(reply.get(1)) - 1);
+                    log.warn("Insufficient stock for productId: {}, orderId: {}", shortProduct, orderId);
+                    throw new StockOperationException("Insufficient stock for productId: " + shortProduct);
+                case "MISSING":
+                    seed(productIds.get(Integer.parseInt(reply.get(1)) - 1));
+                    break;
+                case "DATABASE":
+                    return null;
+                default:
+                    throw switching();
+            }
+        }
+        throw new StockOperationException("Could not load stock counters for orderId: " + orderId);
+    }
+
+    /**
+     * @return the confirmed holds, or null when reservations are served by the database
+     */
+    public List<StockReservationResponseDTO> confirm(UUID orderId) {
+        List<String> reply = settle(orderId, ReservationStatus.CONFIRMED);
+        switch (reply.get(0)) {
+            case "OK":
+                return toResponseDTOs(orderId, parseItems(reply.get(2)), ReservationStatus.CONFIRMED,
+                        fromEpochMilli(reply.get(3)), null);
+            case "SETTLED":
+                if (ReservationStatus.valueOf(reply.get(1)) != ReservationStatus.CONFIRMED) {
+                    throw new InvalidReservationStateException("Reservation already released or expired for orderId: " + orderId);
+                }
+                log.info("Reservation already confirmed for orderId: {}, returning existing", orderId);
+                return toResponseDTOs(orderId, parseItems(reply.get(2)), ReservationStatus.CONFIRMED, null, null);
+            case "EXPIRED":
+                throw new InvalidReservationStateException("Reservation has expired for orderId: " + orderId);
+            case "NOT_FOUND":
+                throw new StockOperationException("No reservations found for orderId: " + orderId);
+            case "DATABASE":
+                return null;
+            default:
+                throw switching();
+        }
+    }
+
+    /**
+     * @return the released holds, or null when reservations are served by the database
+     */
+    public List<StockReservationResponseDTO> release(UUID orderId) {
+        List<String> reply = settle(orderId, ReservationStatus.RELEASED);
+        switch (reply.get(0)) {
+            case "OK":
+                return toResponseDTOs(orderId, parseItems(reply.get(2)), ReservationStatus.RELEASED,
+                        fromEpochMilli(reply.get(3)), null);
+            case "SETTLED":
+                ReservationStatus previous = ReservationStatus.valueOf(reply.get(1));
+                if (previous == ReservationStatus.CONFIRMED) {
+                    throw new InvalidReservationStateException("Reservation already confirmed for orderId: " + orderId);
+                }
+                log.info("Reservation already released or expired for orderId: {}, returning existing", orderId);
+                return toResponseDTOs(orderId, parseItems(reply.get(2)), previous, null, null);
+            case "NOT_FOUND":
+                throw new StockOperationException("No reservations found for orderId: " + orderId);
+            case "DATABASE":
+                return null;
+            default:
+                throw switching();
+        }
+    }
+
+    // Live counters while Redis owns them; null when the database row is authoritative
+    public StockTotalsDTO getTotals(UUID productId) {
+        List<String> reply = run(READ_SCRIPT, List.of(MODE_KEY, stockKey(productId)), List.of());
+        if (!"OK".equals(reply.get(0))) {
+            return null;
+        }
+        return StockTotalsDTO.builder()
+                .quantityAvailable(Integer.parseInt(reply.get(1)))
+                .quantityReserved(Integer.parseInt(reply.get(2)))
+                .shardCount(0)
+                .build();
+    }
+
+    /**
+     * Applies a stock change made inside a database transaction to the Redis counters.
+     * Decreases are taken immediately, so they can never oversell, and handed back if the
+     * transaction rolls back; increases are only published once the transaction commits.
+     *
+     * @return the counters after the change, or null when the database row is authoritative
+     */
+    public StockTotalsDTO adjustAvailable(UUID productId, int delta) {
+        if (delta >= 0) {
+            StockTotalsDTO totals = readOrSeed(productId);
+            if (totals == null) {
+                return null;
+            }
+            afterCompletion(true, () -> run(ADJUST_SCRIPT, List.of(MODE_KEY, stockKey(productId)), List.of(String.valueOf(delta))));
+            totals.setQuantityAvailable(totals.getQuantityAvailable() + delta);
+            return totals;
+        }
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            List<String> reply = run(ADJUST_SCRIPT, List.of(MODE_KEY, stockKey(productId)), List.of(String.valueOf(delta)));
+            switch (reply.get(0)) {
+                case "OK":
+                    afterCompletion(false, () -> run(ADJUST_SCRIPT, List.of(MODE_KEY, stockKey(productId)),
+                            List.of(String.valueOf(-delta))));
+                    return StockTotalsDTO.builder()
+                            .quantityAvailable(Integer.parseInt(reply.get(1)))
+                            .quantityReserved(Integer.parseInt(reply.get(2)))
+                            .shardCount(0)
+                            .build();
+                case "INSUFFICIENT":
+                    throw new StockOperationException("Adjustment would result in negative quantity");
+                case "MISSING":
+                    seed(productId);
+                    break;
+                case "DATABASE":
+                    return null;
+                default:
+                    throw switching();
+            }
+        }
+        throw new StockOperationException("Could not load stock counters for productId: " + productId);
+    }
+
+    public void evictAfterCommit(UUID productId) {
+        afterCompletion(true, () -> redisTemplate.delete(stockKey(productId)));
+    }
+
+    public ReservationEngineStatusDTO getStatus() {
+        Long pending = redisTemplate.opsForStream().size(STREAM_KEY);
+        Long holds = redisTemplate.opsForZSet().zCard(EXPIRY_KEY);
+        return ReservationEngineStatusDTO.builder()
+                .mode(getMode())
+                .pendingChanges(pending != null ? pending : 0)
+                .lastAppliedId(redisTemplate.opsForValue().get(APPLIED_KEY))
+                .openHolds(holds != null ? holds : 0)
+                .build();
+    }
+
+    /**
+     * Moves reservations between the database and Redis. Going to REDIS waits out in-flight
+     * database transactions, clears any stale keys and adopts the open holds; counters are then
+     * seeded lazily. Going back waits until every Redis change has reached the database and
+     * drops the keys. A switch that times out stays in DRAINING and can simply be retried.
+     */
+    public ReservationEngineStatusDTO switchMode(ReservationEngineMode target) {
+        if (target == ReservationEngineMode.DRAINING) {
+            throw new StockOperationException("DRAINING is entered automatically while switching modes");
+        }
+        if (getMode() == target) {
+            return getStatus();
+        }
+
+        if (target == ReservationEngineMode.REDIS) {
+            if (!inventoryRepository.findShardedProductIds().isEmpty()) {
+                throw new StockOperationException("Disable sharded stock on every product before serving reservations from Redis");
+            }
+            if (warehouseStockRepository.count() > 0) {
+                throw new StockOperationException("Products stocked per warehouse cannot be served from Redis");
+            }
+            setMode(ReservationEngineMode.DRAINING);
+            pause(switchGrace);
+            clearKeys();
+            int adopted = adoptPendingReservations();
+            setMode(ReservationEngineMode.REDIS);
+            log.info("Reservations now served from Redis, adopted {} open orders", adopted);
+        } else {
+            setMode(ReservationEngineMode.DRAINING);
+            awaitDrained();
+            clearKeys();
+            setMode(ReservationEngineMode.DATABASE);
+            log.info("Reservations now served from the database");
+        }
+        return getStatus();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.redis-reservations.expiry-interval-ms:1000}", scheduler = "redisReservationScheduler")
+    public void expireHolds() {
+        if (getMode() != ReservationEngineMode.REDIS) {
+            return;
+        }
+        Set<String> due = redisTemplate.opsForZSet().rangeByScore(EXPIRY_KEY, 0, System.currentTimeMillis(), 0, expiryBatchSize);
+        if (due == null || due.isEmpty()) {
+            return;
+        }
+        int expired = 0;
+        for (String orderId : due) {
+            if ("OK".equals(settle(UUID.fromString(orderId), ReservationStatus.EXPIRED).get(0))) {
+                expired++;
+            }
+        }
+        log.info("Expired {} Redis holds", expired);
+    }
+
+    static String stockKey(UUID productId) {
+        return STOCK_PREFIX + productId;
+    }
+
+    // Items are written by the scripts as productId:quantity:reservationId[;reservationId...] joined by commas
+    static List<HoldLine> parseItems(String items) {
+        List<HoldLine> lines = new ArrayList<>();
+        if (items == null || items.isEmpty()) {
+            return lines;
+        }
+        for (String item : items.split(",")) {
+            String[] parts = item.split(":");
+            List<UUID> reservationIds = Arrays.stream(parts[2].split(";"))
+                    .map(UUID::fromString)
+                    .toList();
+            lines.add(new HoldLine(UUID.fromString(parts[0]), Integer.parseInt(parts[1]), reservationIds));
+        }
+        return lines;
+    }
+
+    static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime fromEpochMilli(String millis) {
+        return millis != null ? LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(millis)), ZoneId.systemDefault()) : null;
+    }
+
+    private List<String> settle(UUID orderId, ReservationStatus outcome) {
+        return run(SETTLE_SCRIPT,
+                List.of(MODE_KEY, holdKey(orderId), EXPIRY_KEY, STREAM_KEY, SETTLED_PREFIX + orderId),
+                List.of(orderId.toString(), outcome.name(), STOCK_PREFIX,
+                        String.valueOf(System.currentTimeMillis()), String.valueOf(settledTtl.toMillis())));
+    }
+
+    private StockTotalsDTO readOrSeed(UUID productId) {
+        List<String> reply = run(READ_SCRIPT, List.of(MODE_KEY, stockKey(productId)), List.of());
+        if ("MISSING".equals(reply.get(0))) {
+            seed(productId);
+            reply = run(READ_SCRIPT, List.of(MODE_KEY, stockKey(productId)), List.of());
+        }
+        if ("DATABASE".equals(reply.get(0))) {
+            return null;
+        }
+        if (!"OK".equals(reply.get(0)) || !ReservationEngineMode.REDIS.name().equals(reply.get(4))) {
+            throw switching();
+        }
+        return StockTotalsDTO.builder()
+                .quantityAvailable(Integer.parseInt(reply.get(1)))
+                .quantityReserved(Integer.parseInt(reply.get(2)))
+                .shardCount(0)
+                .build();
+    }
+
+    private void seed(UUID productId) {
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
+        if (inventory.isSharded()) {
+            throw new StockOperationException("Sharded products cannot be served from Redis: " + productId);
+        }
+        Long created = redisTemplate.execute(SEED_SCRIPT, List.of(stockKey(productId)),
+                String.valueOf(inventory.getQuantityAvailable()), String.valueOf(inventory.getQuantityReserved()));
+        if (created != null && created == 1) {
+            log.debug("Seeded Redis stock for productId: {}, available: {}, reserved: {}",
+                    productId, inventory.getQuantityAvailable(), inventory.getQuantityReserved());
+        }
+    }
+
+    private List<StockReservationResponseDTO> currentHold(UUID orderId) {
+        Map<Object, Object> hold = redisTemplate.opsForHash().entries(holdKey(orderId));
+        List<HoldLine> lines = new ArrayList<>();
+        hold.forEach((field, value) -> {
+            if (!field.toString().startsWith("_")) {
+                lines.add(parseItems(field + ":" + value).get(0));
+            }
+        });
+        return toResponseDTOs(orderId, lines, ReservationStatus.PENDING,
+                fromEpochMilli((String) hold.get("_expires")), fromEpochMilli((String) hold.get("_created")));
+    }
+
+    // Open database holds become Redis holds as-is; their quantities are already in the reserved counters
+    private int adoptPendingReservations() {
+        Map<UUID, List<StockReservation>> byOrder = stockReservationRepository.findByStatus(ReservationStatus.PENDING).stream()
+                .collect(Collectors.groupingBy(StockReservation::getOrderId));
+        LocalDateTime defaultExpiry = LocalDateTime.now().plus(holdTtl);
+
+        byOrder.forEach((orderId, reservations) -> {
+            Map<UUID, Integer> quantities = new LinkedHashMap<>();
+            Map<UUID, List<String>> reservationIds = new LinkedHashMap<>();
+            LocalDateTime expiresAt = null;
+            LocalDateTime createdAt = null;
+            for (StockReservation reservation : reservations) {
+                quantities.merge(reservation.getProductId(), reservation.getQuantityReserved(), Integer::sum);
+                reservationIds.computeIfAbsent(reservation.getProductId(), id -> new ArrayList<>())
+                        .add(reservation.getReservationId().toString());
+                if (reservation.getExpiresAt() != null && (expiresAt == null || reservation.getExpiresAt().isBefore(expiresAt))) {
+                    expiresAt = reservation.getExpiresAt();
+                }
+                if (createdAt == null) {
+                    createdAt = reservation.getCreatedAt();
+                }
+            }
+            long expiry = toEpochMilli(expiresAt != null ? expiresAt : defaultExpiry);
+
+            Map<String, String> hold = new HashMap<>();
+            quantities.forEach((productId, quantity) ->
+                    hold.put(productId.toString(), quantity + ":" + String.join(";", reservationIds.get(productId))));
+            hold.put("_expires", String.valueOf(expiry));
+            hold.put("_created", String.valueOf(toEpochMilli(createdAt != null ? createdAt : LocalDateTime.now())));
+            redisTemplate.opsForHash().putAll(holdKey(orderId), hold);
+            redisTemplate.opsForZSet().add(EXPIRY_KEY, orderId.toString(), expiry);
+        });
+        return byOrder.size();
+    }
+
+    private void awaitDrained() {
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (true) {
+            Long pending = redisTemplate.opsForStream().size(STREAM_KEY);
+            if (pending == null || pending == 0) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new StockOperationException("Still draining " + pending + " Redis changes to the database, retry the switch");
+            }
+            pause(Duration.ofMillis(200));
+        }
+    }
+
+    private void clearKeys() {
+        for (String prefix : List.of(STOCK_PREFIX, HOLD_PREFIX, SETTLED_PREFIX)) {
+            List<String> batch = new ArrayList<>();
+            try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(1000).build())) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == 1000) {
+                        redisTemplate.delete(batch);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                redisTemplate.delete(batch);
+            }
+        }
+        redisTemplate.delete(List.of(EXPIRY_KEY, STREAM_KEY, APPLIED_KEY));
+    }
+
+    private void setMode(ReservationEngineMode mode) {
+        redisTemplate.opsForValue().set(MODE_KEY, mode.name());
+        log.info("Reservation engine mode set to {}", mode);
+    }
+
+    private void afterCompletion(boolean onCommit, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit) {
+                action.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == onCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> run(@SuppressWarnings("rawtypes") RedisScript<List> script, List<String> keys, List<String> args) {
+        return (List<String>) redisTemplate.execute(script, keys, args.toArray());
+    }
+
+    private static List<StockReservationResponseDTO> toResponseDTOs(UUID orderId, List<HoldLine> lines, ReservationStatus status,
+                                                                    LocalDateTime expiresAt, LocalDateTime createdAt) {
+        return lines.stream()
+                .map(line -> StockReservationResponseDTO.builder()
+                        .reservationId(line.getReservationIds().get(0))
+                        .orderId(orderId)
+                        .productId(line.getProductId())
+                        .quantityReserved(line.getQuantity())
+                        .reservationStatus(status)
+                        .expiresAt(expiresAt)
+                        .createdAt(createdAt)
+                        .build())
+                .toList();
+    }
+
+    private static StockReservationResponseDTO toResponseDTO(StockReservation reservation) {
+        return StockReservationResponseDTO.builder()
+                .reservationId(reservation.getReservationId())
+                .orderId(reservation.getOrderId())
+                .productId(reservation.getProductId())
+                .quantityReserved(reservation.getQuantityReserved())
+                .warehouseCode(reservation.getWarehouseCode())
+                .reservationStatus(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .build();
+    }
+
+    private static ReservationEngineUnavailableException switching() {
+        return new ReservationEngineUnavailableException("Reservations are switching engines, retry shortly");
+    }
+
+    private static String holdKey(UUID orderId) {
+        return HOLD_PREFIX + orderId;
+    }
+
+    private static void pause(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockOperationException("Interrupted while switching reservation engines");
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static RedisScript<List> script(String name) {
+        return RedisScript.of(new ClassPathResource("scripts/redis/" + name), List.class);
+    }
+
+    @Data
+    @AllArgsConstructor
+    static class HoldLine {
+        private UUID productId;
+        private int quantity;
+        private List<UUID> reservationIds;
+    }
+}
@@ -0,0 +1,318 @@
+package com.pm.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.mapper.InventoryMapper;
+import com.pm.inventoryservice.model.*;
+import com.pm.inventoryservice.repository.InventoryJdbcRepository;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import com.pm.inventoryservice.repository.StockReservationRepository;
+import com.pm.inventoryservice.service.RedisReservationEngine.HoldLine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Replays the Redis change stream into the database. One instance at a time holds the applier
+ * lock and applies entries in stream order; each batch is written in one transaction, after
+ * which the applied position is recorded and the entries are trimmed from the stream. Every
+ * entry goes through a status-guarded write, so a batch replayed after a crash between commit
+ * and trim changes nothing the second time.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.redis-reservations.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisStockChangeApplier {
+
+    private static final String LOCK_KEY = "{inv}:applier-lock";
+    private static final RedisScript<Long> MARK_APPLIED_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redis/mark-applied.lua"), Long.class);
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redis/renew-lock.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final LowStockAlertDebouncer lowStockAlertDebouncer;
+    private final InventoryMapper inventoryMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final String owner = UUID.randomUUID().toString();
+
+    @Value("${inventory.redis-reservations.apply-batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.redis-reservations.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${inventory.redis-reservations.applier-lock-ttl:PT10S}")
+    private Duration lockTtl;
+
+    @Scheduled(fixedDelayString = "${inventory.redis-reservations.apply-interval-ms:100}", scheduler = "redisReservationScheduler")
+    public void apply() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        int applied = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun && holdLock(); batch++) {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .range(RedisReservationEngine.STREAM_KEY, Range.unbounded(), Limit.limit().count(batchSize));
+            if (records == null || records.isEmpty()) {
+                break;
+            }
+
+            try {
+                template.executeWithoutResult(status -> applyBatch(records));
+            } catch (RuntimeException e) {
+                log.error("Applying {} Redis stock changes from {} failed, will retry: {}",
+                        records.size(), records.get(0).getId(), e.getMessage());
+                break;
+            }
+
+            String lastId = records.get(records.size() - 1).getId().getValue();
+            redisTemplate.execute(MARK_APPLIED_SCRIPT,
+                    List.of(RedisReservationEngine.STREAM_KEY, RedisReservationEngine.APPLIED_KEY), lastId);
+            applied += records.size();
+
+            if (records.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (applied > 0) {
+            log.debug("Applied {} Redis stock changes to the database", applied);
+        }
+    }
+
+    private void applyBatch(List<MapRecord<String, Object, Object>> records) {
+        LocalDateTime now = LocalDateTime.now();
+        Batch batch = new Batch();
+
+        Set<UUID> productIds = new HashSet<>();
+        Set<UUID> heldReservationIds = new HashSet<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            for (HoldLine line : RedisReservationEngine.parseItems(field(record, "items"))) {
+                productIds.add(line.getProductId());
+                if ("RESERVED".equals(field(record, "type"))) {
+                    heldReservationIds.addAll(line.getReservationIds());
+                }
+            }
+        }
+        batch.inventories = inventoryRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+        batch.appliedReservationIds = heldReservationIds.isEmpty()
+                ? Set.of() : stockReservationRepository.findExistingReservationIds(heldReservationIds);
+
+        for (MapRecord<String, Object, Object> record : records) {
+            UUID orderId = UUID.fromString(field(record, "orderId"));
+            List<HoldLine> lines = RedisReservationEngine.parseItems(field(record, "items"));
+            LocalDateTime at = RedisReservationEngine.fromEpochMilli(field(record, "at"));
+            String type = field(record, "type");
+
+            if ("RESERVED".equals(type)) {
+                applyReserved(batch, orderId, lines, RedisReservationEngine.fromEpochMilli(field(record, "expiresAt")), at);
+            } else {
+                applySettled(batch, orderId, lines, ReservationStatus.valueOf(type), at);
+            }
+        }
+
+        inventoryJdbcRepository.batchApplyStockDeltas(batch.deltas, now);
+        stockMovementJournal.recordAll(batch.movements);
+        inventoryJdbcRepository.batchInsertOutboxEvents(batch.events);
+    }
+
+    // Idempotent on reservation ids: a replayed entry finds its rows, while a new hold for a reused orderId does not
+    private void applyReserved(Batch batch, UUID orderId, List<HoldLine> lines, LocalDateTime expiresAt, LocalDateTime at) {
+        lines = lines.stream()
+                .filter(line -> !batch.appliedReservationIds.contains(line.getReservationIds().get(0)))
+                .toList();
+        if (lines.isEmpty()) {
+            log.debug("Reservation for orderId: {} already applied", orderId);
+            return;
+        }
+
+        List<StockReservation> reservations = new ArrayList<>(lines.size());
+        List<ReservationItemDTO> items = new ArrayList<>(lines.size());
+        for (HoldLine line : lines) {
+            reservations.add(StockReservation.builder()
+                    .reservationId(line.getReservationIds().get(0))
+                    .orderId(orderId)
+                    .productId(line.getProductId())
+                    .quantityReserved(line.getQuantity())
+                    .status(ReservationStatus.PENDING)
+                    .expiresAt(expiresAt)
+                    .createdAt(at)
+                    .build());
+            items.add(new ReservationItemDTO(line.getProductId(), line.getQuantity()));
+
+            Inventory inventory = batch.inventories.get(line.getProductId());
+            int[] stock = batch.move(line.getProductId(), -line.getQuantity(), line.getQuantity());
+            if (stock == null) {
+                continue;
+            }
+            batch.movements.add(movement(inventory, MovementType.RESERVATION, line.getQuantity(),
+                    stock[0] + line.getQuantity(), stock[0], orderId, "Stock reserved for order", at));
+            if (stock[0] <= inventory.getReorderLevel() && lowStockAlertDebouncer.tryAcquire(inventory.getProductId())) {
+                InventoryResponseDTO snapshot = inventoryMapper.toResponseDTO(inventory);
+                snapshot.setQuantityAvailable(stock[0]);
+                snapshot.setQuantityReserved(stock[1]);
+                batch.events.add(event(inventory.getProductId(), "INVENTORY", EventType.LOW_STOCK_ALERT, snapshot, at));
+            }
+        }
+
+        inventoryJdbcRepository.batchInsertReservations(reservations);
+        batch.events.add(event(orderId, "ORDER", EventType.STOCK_RESERVED, items, at));
+    }
+
+    private void applySettled(Batch batch, UUID orderId, List<HoldLine> lines, ReservationStatus outcome, LocalDateTime at) {
+        List<UUID> reservationIds = lines.stream()
+                .flatMap(line -> line.getReservationIds().stream())
+                .toList();
+        int updated = outcome == ReservationStatus.CONFIRMED
+                ? stockReservationRepository.updateConfirmedStatus(reservationIds, ReservationStatus.PENDING, outcome, at)
+                : stockReservationRepository.updateReleasedStatus(reservationIds, ReservationStatus.PENDING, outcome, at);
+        if (updated == 0) {
+            log.debug("{} for orderId: {} already applied", outcome, orderId);
+            return;
+        }
+
+        MovementType movementType = switch (outcome) {
+            case CONFIRMED -> MovementType.RESERVATION_CONFIRMED;
+            case EXPIRED -> MovementType.RESERVATION_EXPIRED;
+            default -> MovementType.RESERVATION_RELEASED;
+        };
+        List<StockReservationResponseDTO> settled = new ArrayList<>(lines.size());
+        for (HoldLine line : lines) {
+            int quantity = line.getQuantity();
+            int[] stock = outcome == ReservationStatus.CONFIRMED
+                    ? batch.move(line.getProductId(), 0, -quantity)
+                    : batch.move(line.getProductId(), quantity, -quantity);
+            if (stock != null) {
+                // Confirmations are recorded against reserved stock, releases against available stock
+                int after = outcome == ReservationStatus.CONFIRMED ? stock[1] : stock[0];
+                int before = outcome == ReservationStatus.CONFIRMED ? after + quantity : after - quantity;
+                batch.movements.add(movement(batch.inventories.get(line.getProductId()), movementType, quantity,
+                        before, after, orderId, reason(outcome), at));
+            }
+            settled.add(StockReservationResponseDTO.builder()
+                    .reservationId(line.getReservationIds().get(0))
+                    .orderId(orderId)
+                    .productId(line.getProductId())
+                    .quantityReserved(quantity)
+                    .reservationStatus(outcome)
+                    .build());
+        }
+
+        EventType eventType = switch (outcome) {
+            case CONFIRMED -> EventType.RESERVATION_CONFIRMED;
+            case EXPIRED -> EventType.RESERVATION_EXPIRED;
+            default -> EventType.RESERVATION_RELEASED;
+        };
+        batch.events.add(event(orderId, "ORDER", eventType, settled, at));
+    }
+
+    private boolean holdLock() {
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, owner, lockTtl))) {
+            return true;
+        }
+        Long renewed = redisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(LOCK_KEY), owner, String.valueOf(lockTtl.toMillis()));
+        return renewed != null && renewed == 1;
+    }
+
+    private StockMovement movement(Inventory inventory, MovementType type, int quantity, int previous, int next,
+                                   UUID orderId, String reason, LocalDateTime at) {
+        return StockMovement.builder()
+                .inventoryId(inventory.getInventoryId())
+                .movementType(type)
+                .quantity(quantity)
+                .previousQuantity(previous)
+                .newQuantity(next)
+                .referenceId(orderId)
+                .referenceType("ORDER")
+                .reason(reason)
+                .createdAt(at)
+                .createdBy("SYSTEM")
+                .build();
+    }
+
+    private OutboxEvent event(UUID aggregateId, String aggregateType, EventType eventType, Object payload, LocalDateTime at) {
+        try {
+            return OutboxEvent.builder()
+                    .eventId(UUID.randomUUID())
+                    .aggregateId(aggregateId)
+                    .aggregateType(aggregateType)
+                    .eventType(eventType)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .published(false)
+                    .retryCount(0)
+                    .createdAt(at)
+                    .build();
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing {} event: {}", eventType, e.getMessage());
+            throw new RuntimeException("Error serializing " + eventType + " event");
+        }
+    }
+
+    private static String reason(ReservationStatus outcome) {
+        return switch (outcome) {
+            case CONFIRMED -> "Order confirmed";
+            case EXPIRED -> "Reservation expired";
+            default -> "Reservation released";
+        };
+    }
+
+    private static String field(MapRecord<String, Object, Object> record, String name) {
+        Object value = record.getValue().get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    // Per-batch state: running stock per product so movements chain, and the net delta to write
+    private static class Batch {
+        private Map<UUID, Inventory> inventories = Map.of();
+        private Set<UUID> appliedReservationIds = Set.of();
+        private final Map<UUID, int[]> running = new HashMap<>();
+        private final Map<UUID, int[]> deltas = new TreeMap<>();
+        private final List<StockMovement> movements = new ArrayList<>();
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        // Returns {available, reserved} after the change, or null for a product without a row
+        private int[] move(UUID productId, int availableDelta, int reservedDelta) {
+            Inventory inventory = inventories.get(productId);
+            if (inventory == null) {
+                log.warn("Inventory missing for productId: {} while applying Redis changes", productId);
+                return null;
+            }
+            int[] stock = running.computeIfAbsent(productId,
+                    id -> new int[]{inventory.getQuantityAvailable(), inventory.getQuantityReserved()});
+            stock[0] += availableDelta;
+            stock[1] += reservedDelta;
+            int[] delta = deltas.computeIfAbsent(productId, id -> new int[2]);
+            delta[0] += availableDelta;
+            delta[1] += reservedDelta;
+            return stock;
+        }
+    }
+}
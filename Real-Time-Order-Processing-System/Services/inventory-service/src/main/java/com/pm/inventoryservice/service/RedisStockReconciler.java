@@ -0,0 +1,157 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.response.ReservationEngineDriftDTO;
+import com.pm.inventoryservice.dto.response.ReservationEngineReconciliationDTO;
+import com.pm.inventoryservice.exception.StockOperationException;
+import com.pm.inventoryservice.model.Inventory;
+import com.pm.inventoryservice.model.ReservationEngineMode;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the Redis counters with the inventory rows they are replayed into. A product is only
+ * compared once every stream entry that touched it has been applied, and only if it was not
+ * touched again while its row was read; anything else is counted as skipped and left for the
+ * next run. Repair moves Redis onto the database values, since a difference there means a
+ * stock change committed to the database but its Redis update was lost. It only touches
+ * products that showed the same drift on the previous run, so a stock change caught between
+ * its commit and its Redis update is never counted twice.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.redis-reservations.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisStockReconciler {
+
+    private static final int PAGE_SIZE = 500;
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redis/read-stock.lua"), List.class);
+    private static final RedisScript<Long> REPAIR_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/redis/repair-stock.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisReservationEngine redisReservationEngine;
+    private final InventoryRepository inventoryRepository;
+
+    private volatile Map<UUID, ReservationEngineDriftDTO> previousDrifts = Map.of();
+
+    public ReservationEngineReconciliationDTO reconcile(boolean repair) {
+        if (redisReservationEngine.getMode() != ReservationEngineMode.REDIS) {
+            throw new StockOperationException("Reservations are not being served from Redis");
+        }
+
+        int[] counts = new int[2];
+        List<ReservationEngineDriftDTO> drifts = new ArrayList<>();
+        List<UUID> page = new ArrayList<>(PAGE_SIZE);
+        ScanOptions options = ScanOptions.scanOptions().match(RedisReservationEngine.STOCK_PREFIX + "*").count(PAGE_SIZE).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                page.add(UUID.fromString(cursor.next().substring(RedisReservationEngine.STOCK_PREFIX.length())));
+                if (page.size() == PAGE_SIZE) {
+                    reconcilePage(page, repair, counts, drifts);
+                    page.clear();
+                }
+            }
+        }
+        if (!page.isEmpty()) {
+            reconcilePage(page, repair, counts, drifts);
+        }
+        previousDrifts = drifts.stream()
+                .filter(drift -> !drift.isRepaired())
+                .collect(Collectors.toMap(ReservationEngineDriftDTO::getProductId, Function.identity()));
+
+        if (!drifts.isEmpty()) {
+            log.warn("Redis stock drifted from the database for {} products, repaired: {}", drifts.size(), repair);
+        }
+        return ReservationEngineReconciliationDTO.builder()
+                .checked(counts[0])
+                .skipped(counts[1])
+                .drifts(drifts)
+                .reconciledAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Scheduled(cron = "${inventory.redis-reservations.reconcile-cron:0 */10 * * * *}")
+    public void reconcileScheduled() {
+        if (redisReservationEngine.getMode() == ReservationEngineMode.REDIS) {
+            reconcile(false);
+        }
+    }
+
+    private void reconcilePage(List<UUID> productIds, boolean repair, int[] counts, List<ReservationEngineDriftDTO> drifts) {
+        Map<UUID, List<String>> before = new HashMap<>();
+        for (UUID productId : productIds) {
+            before.put(productId, read(productId));
+        }
+        String applied = redisTemplate.opsForValue().get(RedisReservationEngine.APPLIED_KEY);
+        Map<UUID, Inventory> rows = inventoryRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+
+        for (UUID productId : productIds) {
+            List<String> snapshot = before.get(productId);
+            Inventory inventory = rows.get(productId);
+            if (!"OK".equals(snapshot.get(0)) || inventory == null
+                    || !isApplied(snapshot.get(3), applied) || !snapshot.equals(read(productId))) {
+                counts[1]++;
+                continue;
+            }
+            counts[0]++;
+
+            int available = Integer.parseInt(snapshot.get(1));
+            int reserved = Integer.parseInt(snapshot.get(2));
+            if (available == inventory.getQuantityAvailable() && reserved == inventory.getQuantityReserved()) {
+                continue;
+            }
+
+            ReservationEngineDriftDTO drift = ReservationEngineDriftDTO.builder()
+                    .productId(productId)
+                    .redisAvailable(available)
+                    .redisReserved(reserved)
+                    .databaseAvailable(inventory.getQuantityAvailable())
+                    .databaseReserved(inventory.getQuantityReserved())
+                    .build();
+            if (repair && drift.equals(previousDrifts.get(productId))) {
+                Long result = redisTemplate.execute(REPAIR_SCRIPT, List.of(RedisReservationEngine.stockKey(productId)),
+                        snapshot.get(3), String.valueOf(inventory.getQuantityAvailable()),
+                        String.valueOf(inventory.getQuantityReserved()));
+                drift.setRepaired(result != null && result == 1);
+            }
+            drifts.add(drift);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> read(UUID productId) {
+        return (List<String>) redisTemplate.execute(READ_SCRIPT,
+                List.of(RedisReservationEngine.MODE_KEY, RedisReservationEngine.stockKey(productId)));
+    }
+
+    // Stream ids are <millis>-<sequence>; a product never touched through the stream carries 0-0
+    private static boolean isApplied(String last, String applied) {
+        if ("0-0".equals(last)) {
+            return true;
+        }
+        if (applied == null) {
+            return false;
+        }
+        String[] lastParts = last.split("-");
+        String[] appliedParts = applied.split("-");
+        int byTime = Long.compare(Long.parseLong(lastParts[0]), Long.parseLong(appliedParts[0]));
+        return byTime < 0 || (byTime == 0 && Long.parseLong(lastParts[1]) <= Long.parseLong(appliedParts[1]));
+    }
+}
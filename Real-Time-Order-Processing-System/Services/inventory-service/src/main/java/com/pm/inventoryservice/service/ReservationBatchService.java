@@ -0,0 +1,347 @@
+package com.pm.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.response.BulkReservationItemResultDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.mapper.StockReservationMapper;
+import com.pm.inventoryservice.model.*;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import com.pm.inventoryservice.repository.OutboxEventRepository;
+import com.pm.inventoryservice.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based reservation operations for many orders at once. A chunk of orders is
+ * handled in one transaction: reservations are aggregated per product, each product
+ * gets a single UPDATE, and the reservation status change, movements and the per-order
+ * outbox events are written in batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationBatchService {
+
+    private final InventoryRepository inventoryRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final StockMovementJournal stockMovementJournal;
+    private final ShardedStockService shardedStockService;
+    private final WarehouseService warehouseService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final StockReservationMapper stockReservationMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Expires the PENDING reservations of the given orders whose expiry time has passed
+     * and returns their quantity to available stock.
+     *
+     * @return number of reservation lines expired
+     */
+    @Transactional
+    public int expireReservations(List<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StockReservation> reservations = stockReservationRepository
+                .findByOrderIdInAndStatusWithLock(orderIds, ReservationStatus.PENDING).stream()
+                .filter(reservation -> reservation.getExpiresAt() != null && reservation.getExpiresAt().isBefore(now))
+                .toList();
+
+        if (reservations.isEmpty()) {
+            log.debug("No expired reservations left for {} orders", orderIds.size());
+            return 0;
+        }
+
+        int updated = applyRelease(reservations, ReservationStatus.EXPIRED, MovementType.RESERVATION_EXPIRED,
+                "Reservation expired", EventType.RESERVATION_EXPIRED, now);
+
+        log.info("Expired {} reservation lines for {} orders", updated, orderIds.size());
+        return updated;
+    }
+
+    /**
+     * Confirms the PENDING reservations of the given orders. Orders already confirmed are
+     * reported as succeeded without changes; orders that were released, expired or have
+     * lapsed fail on their own and the rest of the chunk still commits.
+     */
+    @Transactional
+    public List<BulkReservationItemResultDTO> confirmReservations(List<UUID> orderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, List<StockReservation>> reservationsByOrder = lockReservationsByOrder(orderIds);
+        List<BulkReservationItemResultDTO> results = new ArrayList<>(orderIds.size());
+        List<StockReservation> accepted = new ArrayList<>();
+
+        for (UUID orderId : orderIds) {
+            List<StockReservation> lines = reservationsByOrder.getOrDefault(orderId, List.of());
+            if (lines.isEmpty()) {
+                results.add(failure(orderId, "No reservations found for orderId: " + orderId));
+            } else if (hasStatus(lines, ReservationStatus.CONFIRMED)) {
+                results.add(success(orderId, ReservationStatus.CONFIRMED, lines.size(), "Already confirmed"));
+            } else if (hasStatus(lines, ReservationStatus.RELEASED) || hasStatus(lines, ReservationStatus.EXPIRED)) {
+                results.add(failure(orderId, "Reservation already released or expired for orderId: " + orderId));
+            } else if (lines.stream().anyMatch(line -> line.getExpiresAt() != null && line.getExpiresAt().isBefore(now))) {
+                results.add(failure(orderId, "Reservation has expired for orderId: " + orderId));
+            } else {
+                accepted.addAll(lines);
+                results.add(success(orderId, ReservationStatus.CONFIRMED, lines.size(), null));
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return results;
+        }
+
+        Map<UUID, Integer> quantityByProduct = sumByProduct(accepted);
+        Map<UUID, Inventory> inventories = lockInventories(quantityByProduct.keySet());
+        List<StockMovement> movements = buildConfirmMovements(accepted, inventories);
+
+        quantityByProduct.forEach((productId, quantity) -> {
+            Inventory inventory = inventories.get(productId);
+            if (inventory != null && !inventory.isSharded()) {
+                inventoryRepository.confirmReservedStock(productId, quantity, now);
+            }
+        });
+        for (StockReservation reservation : accepted) {
+            Inventory inventory = inventories.get(reservation.getProductId());
+            if (inventory != null && inventory.isSharded()) {
+                shardedStockService.confirm(reservation.getProductId(), reservation.getBucketIndex(),
+                        reservation.getQuantityReserved());
+            } else if (inventory != null && reservation.getWarehouseCode() != null) {
+                warehouseService.confirm(reservation);
+            }
+        }
+
+        int updated = stockReservationRepository.updateConfirmedStatus(reservationIds(accepted),
+                ReservationStatus.PENDING, ReservationStatus.CONFIRMED, now);
+        stockMovementJournal.recordAll(movements);
+        publishBatchEvent(EventType.RESERVATION_CONFIRMED, toResponseDTOs(accepted, ReservationStatus.CONFIRMED));
+
+        log.info("Confirmed {} reservation lines across {} products for {} orders",
+                updated, quantityByProduct.size(), orderIds.size());
+        return results;
+    }
+
+    /**
+     * Releases the PENDING reservations of the given orders back to available stock. Orders
+     * already released or expired are reported as succeeded without changes; confirmed orders
+     * fail on their own and the rest of the chunk still commits.
+     */
+    @Transactional
+    public List<BulkReservationItemResultDTO> releaseReservations(List<UUID> orderIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, List<StockReservation>> reservationsByOrder = lockReservationsByOrder(orderIds);
+        List<BulkReservationItemResultDTO> results = new ArrayList<>(orderIds.size());
+        List<StockReservation> accepted = new ArrayList<>();
+
+        for (UUID orderId : orderIds) {
+            List<StockReservation> lines = reservationsByOrder.getOrDefault(orderId, List.of());
+            if (lines.isEmpty()) {
+                results.add(failure(orderId, "No reservations found for orderId: " + orderId));
+            } else if (hasStatus(lines, ReservationStatus.RELEASED) || hasStatus(lines, ReservationStatus.EXPIRED)) {
+                results.add(success(orderId, lines.getFirst().getStatus(), lines.size(), "Already released or expired"));
+            } else if (hasStatus(lines, ReservationStatus.CONFIRMED)) {
+                results.add(failure(orderId, "Reservation already confirmed for orderId: " + orderId));
+            } else {
+                accepted.addAll(lines);
+                results.add(success(orderId, ReservationStatus.RELEASED, lines.size(), null));
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            int updated = applyRelease(accepted, ReservationStatus.RELEASED, MovementType.RESERVATION_RELEASED,
+                    "Reservation released", EventType.RESERVATION_RELEASED, now);
+            log.info("Released {} reservation lines for {} orders", updated, orderIds.size());
+        }
+        return results;
+    }
+
+    // Returns the reserved quantity to available stock for PENDING lines, then marks them with the given status
+    private int applyRelease(List<StockReservation> reservations, ReservationStatus newStatus, MovementType movementType,
+                             String reason, EventType eventType, LocalDateTime now) {
+        Map<UUID, Integer> quantityByProduct = sumByProduct(reservations);
+        Map<UUID, Inventory> inventories = lockInventories(quantityByProduct.keySet());
+
+        List<StockMovement> movements = buildReleaseMovements(reservations, inventories, movementType, reason);
+
+        // Sharded and warehouse-held products also return stock to the bucket or warehouse each line came from
+        quantityByProduct.forEach((productId, quantity) -> {
+            Inventory inventory = inventories.get(productId);
+            if (inventory != null && !inventory.isSharded()) {
+                inventoryRepository.releaseReservedStock(productId, quantity, now);
+            }
+        });
+        for (StockReservation reservation : reservations) {
+            Inventory inventory = inventories.get(reservation.getProductId());
+            if (inventory != null && inventory.isSharded()) {
+                shardedStockService.release(reservation.getProductId(), reservation.getBucketIndex(),
+                        reservation.getQuantityReserved());
+            } else if (inventory != null && reservation.getWarehouseCode() != null) {
+                warehouseService.release(reservation);
+            }
+        }
+
+        int updated = stockReservationRepository.updateReleasedStatus(reservationIds(reservations),
+                ReservationStatus.PENDING, newStatus, now);
+
+        stockMovementJournal.recordAll(movements);
+
+        publishBatchEvent(eventType, toResponseDTOs(reservations, newStatus));
+        return updated;
+    }
+
+    private Map<UUID, List<StockReservation>> lockReservationsByOrder(List<UUID> orderIds) {
+        return stockReservationRepository.findByOrderIdInWithLock(orderIds).stream()
+                .collect(Collectors.groupingBy(StockReservation::getOrderId));
+    }
+
+    private Map<UUID, Inventory> lockInventories(Collection<UUID> productIds) {
+        return inventoryRepository.findByProductIdInWithLock(productIds).stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+    }
+
+    private static Map<UUID, Integer> sumByProduct(List<StockReservation> reservations) {
+        return reservations.stream()
+                .collect(Collectors.groupingBy(StockReservation::getProductId, TreeMap::new,
+                        Collectors.summingInt(StockReservation::getQuantityReserved)));
+    }
+
+    private static List<UUID> reservationIds(List<StockReservation> reservations) {
+        return reservations.stream()
+                .map(StockReservation::getReservationId)
+                .toList();
+    }
+
+    private static boolean hasStatus(List<StockReservation> reservations, ReservationStatus status) {
+        return reservations.stream().anyMatch(reservation -> reservation.getStatus() == status);
+    }
+
+    // Confirmed lines leave reserved stock without returning to available, so the chain follows reserved
+    private List<StockMovement> buildConfirmMovements(List<StockReservation> reservations, Map<UUID, Inventory> inventories) {
+        Map<UUID, Integer> runningReserved = new HashMap<>();
+        List<StockMovement> movements = new ArrayList<>(reservations.size());
+
+        for (StockReservation reservation : reservations) {
+            Inventory inventory = inventories.get(reservation.getProductId());
+            if (inventory == null) {
+                log.warn("Inventory missing for productId: {} while confirming orderId: {}",
+                        reservation.getProductId(), reservation.getOrderId());
+                continue;
+            }
+
+            int previousReserved = runningReserved.computeIfAbsent(inventory.getProductId(),
+                    productId -> shardedStockService.getTotals(inventory).getQuantityReserved());
+            int newReserved = previousReserved - reservation.getQuantityReserved();
+            runningReserved.put(inventory.getProductId(), newReserved);
+
+            movements.add(StockMovement.builder()
+                    .inventoryId(inventory.getInventoryId())
+                    .movementType(MovementType.RESERVATION_CONFIRMED)
+                    .quantity(reservation.getQuantityReserved())
+                    .previousQuantity(previousReserved)
+                    .newQuantity(newReserved)
+                    .referenceId(reservation.getOrderId())
+                    .referenceType("ORDER")
+                    .reason("Order confirmed")
+                    .createdBy("SYSTEM")
+                    .build());
+        }
+        return movements;
+    }
+
+    // Movements are chained per product so previous/new quantities stay consistent within the chunk
+    private List<StockMovement> buildReleaseMovements(List<StockReservation> reservations,
+                                                      Map<UUID, Inventory> inventories,
+                                                      MovementType movementType,
+                                                      String reason) {
+        Map<UUID, Integer> runningAvailable = new HashMap<>();
+        List<StockMovement> movements = new ArrayList<>(reservations.size());
+
+        for (StockReservation reservation : reservations) {
+            Inventory inventory = inventories.get(reservation.getProductId());
+            if (inventory == null) {
+                log.warn("Inventory missing for productId: {} while releasing orderId: {}",
+                        reservation.getProductId(), reservation.getOrderId());
+                continue;
+            }
+
+            int previousAvailable = runningAvailable.computeIfAbsent(inventory.getProductId(),
+                    productId -> shardedStockService.getTotals(inventory).getQuantityAvailable());
+            int newAvailable = previousAvailable + reservation.getQuantityReserved();
+            runningAvailable.put(inventory.getProductId(), newAvailable);
+
+            movements.add(StockMovement.builder()
+                    .inventoryId(inventory.getInventoryId())
+                    .movementType(movementType)
+                    .quantity(reservation.getQuantityReserved())
+                    .previousQuantity(previousAvailable)
+                    .newQuantity(newAvailable)
+                    .referenceId(reservation.getOrderId())
+                    .referenceType("ORDER")
+                    .reason(reason)
+                    .createdBy("SYSTEM")
+                    .build());
+        }
+        return movements;
+    }
+
+    // The loaded entities are detached by the bulk status update, so the new status is applied on the DTOs
+    private List<StockReservationResponseDTO> toResponseDTOs(List<StockReservation> reservations, ReservationStatus status) {
+        List<StockReservationResponseDTO> results = new ArrayList<>(reservations.size());
+        for (StockReservation reservation : reservations) {
+            StockReservationResponseDTO dto = stockReservationMapper.toResponseDTO(reservation);
+            dto.setReservationStatus(status);
+            results.add(dto);
+        }
+        return results;
+    }
+
+    private static BulkReservationItemResultDTO success(UUID orderId, ReservationStatus status, int lines, String message) {
+        return BulkReservationItemResultDTO.builder()
+                .orderId(orderId)
+                .success(true)
+                .reservationStatus(status)
+                .lines(lines)
+                .message(message)
+                .build();
+    }
+
+    private static BulkReservationItemResultDTO failure(UUID orderId, String message) {
+        return BulkReservationItemResultDTO.builder()
+                .orderId(orderId)
+                .success(false)
+                .message(message)
+                .build();
+    }
+
+    // One event per order keyed by orderId, matching the single-order path so per-order ordering holds on the topic
+    private void publishBatchEvent(EventType eventType, List<StockReservationResponseDTO> reservations) {
+        Map<UUID, List<StockReservationResponseDTO>> reservationsByOrder = reservations.stream()
+                .collect(Collectors.groupingBy(StockReservationResponseDTO::getOrderId, LinkedHashMap::new, Collectors.toList()));
+        List<OutboxEvent> events = new ArrayList<>(reservationsByOrder.size());
+        try {
+            for (Map.Entry<UUID, List<StockReservationResponseDTO>> entry : reservationsByOrder.entrySet()) {
+                events.add(OutboxEvent.builder()
+                        .aggregateId(entry.getKey())
+                        .aggregateType("ORDER")
+                        .eventType(eventType)
+                        .payload(objectMapper.writeValueAsString(entry.getValue()))
+                        .published(false)
+                        .build());
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing {} batch event: {}", eventType, e.getMessage());
+            throw new RuntimeException("Error serializing " + eventType + " batch event");
+        }
+        outboxEventRepository.saveAll(events);
+    }
+}
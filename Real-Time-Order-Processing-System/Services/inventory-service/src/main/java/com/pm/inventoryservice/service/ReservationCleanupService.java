@@ -1,12 +1,16 @@
 package com.pm.inventoryservice.service;
 
-import com.pm.inventoryservice.model.StockReservation;
 import com.pm.inventoryservice.repository.StockReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import com.pm.inventoryservice.model.ReservationStatus;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,38 +20,67 @@ import java.util.UUID;
 public class ReservationCleanupService  {
 
     private final StockReservationRepository stockReservationRepository;
-    private final InventoryService inventoryService;
-    @Scheduled(fixedRate = 500000)
-    public void cleanUpExpiredReservations() {
+    private final ReservationBatchService reservationBatchService;
+    private final ObjectProvider<RedisReservationEngine> redisReservationEngine;
 
-        List<StockReservation> stockReservations = stockReservationRepository
-                .findByStatusAndExpiresAtBefore(ReservationStatus.PENDING, java.time.LocalDateTime.now());
+    @Value("${inventory.reservation.expiry.chunk-size:500}")
+    private int chunkSize;
 
-        if(stockReservations.isEmpty()){
-            log.info("No expired reservations found");
+    @Value("${inventory.reservation.expiry.max-chunks-per-run:50}")
+    private int maxChunksPerRun;
+
+    @Scheduled(fixedRate = 500000)
+    public void cleanUpExpiredReservations() {
+        // Open holds, including ones adopted from the database, are expired by the Redis engine while it serves
+        RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+        if (engine != null && engine.isServing()) {
             return;
         }
 
-        List<UUID> uniqueOrderIds = stockReservations.stream()
-                .map(StockReservation::getOrderId)
-                .distinct()
-                .toList();
-
-        int successCount = 0;
+        int releasedLines = 0;
+        int releasedOrders = 0;
         int failureCount = 0;
 
-        for(UUID orderId : uniqueOrderIds) {
+        UUID after = new UUID(0L, 0L);
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            List<UUID> orderIds = stockReservationRepository.findOrderIdsByStatusAndExpiresAtBefore(
+                    ReservationStatus.PENDING, LocalDateTime.now(), after, PageRequest.of(0, chunkSize));
+
+            if (orderIds.isEmpty()) {
+                break;
+            }
+            after = orderIds.getLast();
+
             try {
-                inventoryService.releaseReservation(orderId);
-                successCount++;
+                releasedLines += reservationBatchService.expireReservations(orderIds);
+                releasedOrders += orderIds.size();
             } catch (Exception e) {
-                failureCount++;
-                log.error("Failed to release reservation for orderId: {}, error: {}",
-                        orderId, e.getMessage());
+                // One bad order must not hold back the rest of the chunk, so it is retried order by order
+                log.warn("Failed to expire reservation chunk of {} orders, retrying per order, error: {}",
+                        orderIds.size(), e.getMessage());
+                for (UUID orderId : orderIds) {
+                    try {
+                        releasedLines += reservationBatchService.expireReservations(List.of(orderId));
+                        releasedOrders++;
+                    } catch (Exception orderFailure) {
+                        failureCount++;
+                        log.error("Failed to expire reservations for orderId: {}, error: {}",
+                                orderId, orderFailure.getMessage());
+                    }
+                }
+            }
+
+            if (orderIds.size() < chunkSize) {
+                break;
             }
         }
 
-        log.info("Cleanup complete: {} orders released, {} failures", successCount, failureCount);
+        if (releasedOrders == 0 && failureCount == 0) {
+            log.info("No expired reservations found");
+            return;
+        }
+
+        log.info("Cleanup complete: {} orders ({} lines) expired, {} failures", releasedOrders, releasedLines, failureCount);
     }
 
 }
@@ -0,0 +1,50 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.request.AllocationPreferenceDTO;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entry point for reserve, confirm and release. Calls go to the Redis engine when it is enabled
+ * and serving, and to {@link InventoryService} otherwise; the Redis path never opens a database
+ * transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationEngineRouter {
+
+    private final InventoryService inventoryService;
+    private final ObjectProvider<RedisReservationEngine> redisReservationEngine;
+
+    public boolean isRedisServing() {
+        RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+        return engine != null && engine.isServing();
+    }
+
+    public List<StockReservationResponseDTO> reserveStock(UUID orderId, List<ReservationItemDTO> items,
+                                                          AllocationPreferenceDTO preference) {
+        inventoryService.validateReservationItems(items);
+        RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+        List<StockReservationResponseDTO> held = engine != null ? engine.reserve(orderId, items) : null;
+        return held != null ? held : inventoryService.reserveStock(orderId, items, preference);
+    }
+
+    public List<StockReservationResponseDTO> confirmReservation(UUID orderId) {
+        RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+        List<StockReservationResponseDTO> confirmed = engine != null ? engine.confirm(orderId) : null;
+        return confirmed != null ? confirmed : inventoryService.confirmReservation(orderId);
+    }
+
+    public void releaseReservation(UUID orderId) {
+        RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+        if (engine == null || engine.release(orderId) == null) {
+            inventoryService.releaseReservation(orderId);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
+import com.pm.inventoryservice.exception.InventoryNotFoundException;
+import com.pm.inventoryservice.exception.StockOperationException;
+import com.pm.inventoryservice.model.Inventory;
+import com.pm.inventoryservice.model.InventoryBucket;
+import com.pm.inventoryservice.repository.InventoryBucketRepository;
+import com.pm.inventoryservice.repository.InventoryRepository;
+import com.pm.inventoryservice.repository.WarehouseStockRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Split-counter stock for hot products. A sharded product keeps its available and reserved
+ * quantities in K bucket rows; a reservation decrements one randomly chosen bucket with a
+ * conditional UPDATE, so concurrent reservations contend on K row locks instead of the single
+ * inventory row. The inventory row keeps an aggregate that is synced on a schedule and is
+ * overlaid with live bucket totals on single-product reads.
+ *
+ * Reservations made before sharding was enabled carry no bucket index and are settled
+ * against bucket 0, which starts out holding the product's reserved quantity.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShardedStockService {
+
+    private static final int MAX_SHARDS = 64;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryBucketRepository inventoryBucketRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final ObjectProvider<RedisReservationEngine> redisReservationEngine;
+    private final EntityManager entityManager;
+
+    @Value("${inventory.sharding.default-shards:8}")
+    private int defaultShards;
+
+    @Transactional
+    public StockTotalsDTO enableSharding(UUID productId, Integer shards) {
+        int shardCount = shards != null ? shards : defaultShards;
+        if (shardCount < 2 || shardCount > MAX_SHARDS) {
+            throw new StockOperationException("Shard count must be between 2 and " + MAX_SHARDS);
+        }
+        redisReservationEngine.ifAvailable(engine -> engine.requireDatabaseMode("Sharded stock"));
+
+        Inventory inventory = lockInventory(productId);
+        if (inventory.isSharded()) {
+            throw new StockOperationException("Inventory is already sharded for productId: " + productId);
+        }
+        if (warehouseStockRepository.existsByProductId(productId)) {
+            throw new StockOperationException("Products stocked per warehouse cannot be sharded: " + productId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int[] split = split(inventory.getQuantityAvailable(), shardCount);
+        List<InventoryBucket> buckets = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            buckets.add(InventoryBucket.builder()
+                    .productId(productId)
+                    .bucketIndex(i)
+                    .quantityAvailable(split[i])
+                    .quantityReserved(i == 0 ? inventory.getQuantityReserved() : 0)
+                    .updatedAt(now)
+                    .build());
+        }
+        inventoryBucketRepository.saveAll(buckets);
+
+        inventory.setShardCount(shardCount);
+        inventoryRepository.save(inventory);
+
+        log.info("Enabled sharded stock for productId: {} with {} buckets", productId, shardCount);
+        return totals(buckets);
+    }
+
+    @Transactional
+    public StockTotalsDTO disableSharding(UUID productId) {
+        Inventory inventory = lockInventory(productId);
+        if (!inventory.isSharded()) {
+            throw new StockOperationException("Inventory is not sharded for productId: " + productId);
+        }
+
+        StockTotalsDTO totals = totals(lockBuckets(productId));
+        inventory.setQuantityAvailable(totals.getQuantityAvailable());
+        inventory.setQuantityReserved(totals.getQuantityReserved());
+        inventory.setShardCount(0);
+        inventoryRepository.save(inventory);
+        inventoryBucketRepository.deleteByProductId(productId);
+
+        log.info("Disabled sharded stock for productId: {}, available: {}, reserved: {}",
+                productId, totals.getQuantityAvailable(), totals.getQuantityReserved());
+        totals.setShardCount(0);
+        return totals;
+    }
+
+    /**
+     * Reserves from a random bucket, probing the others in turn when it is short. If no single
+     * bucket can cover the quantity but the buckets together can, stock is gathered into the
+     * fullest bucket under the bucket locks and reserved from there; a later rebalance spreads
+     * it out again.
+     *
+     * @return index of the bucket the quantity was taken from
+     */
+    @Transactional
+    public int reserve(Inventory inventory, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        int bucket = probe(inventory.getProductId(), inventory.getShardCount(), quantity, now);
+        if (bucket < 0) {
+            bucket = gather(inventory.getProductId(), quantity, now);
+        }
+        if (bucket < 0) {
+            throw new StockOperationException("Insufficient stock for productId: " + inventory.getProductId());
+        }
+        return bucket;
+    }
+
+    @Transactional
+    public void confirm(UUID productId, Integer bucketIndex, int quantity) {
+        inventoryBucketRepository.confirmReserved(productId, bucketOrDefault(bucketIndex), quantity, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void release(UUID productId, Integer bucketIndex, int quantity) {
+        inventoryBucketRepository.releaseReserved(productId, bucketOrDefault(bucketIndex), quantity, LocalDateTime.now());
+    }
+
+    // Increases go to one random bucket; decreases lock every bucket and drain the fullest first
+    @Transactional
+    public StockTotalsDTO adjust(Inventory inventory, int delta) {
+        LocalDateTime now = LocalDateTime.now();
+        UUID productId = inventory.getProductId();
+        if (delta >= 0) {
+            int bucket = ThreadLocalRandom.current().nextInt(inventory.getShardCount());
+            inventoryBucketRepository.addAvailable(productId, bucket, delta, now);
+            return getTotals(inventory);
+        }
+
+        List<InventoryBucket> buckets = lockBuckets(productId);
+        StockTotalsDTO totals = totals(buckets);
+        if (totals.getQuantityAvailable() + delta < 0) {
+            throw new StockOperationException("Adjustment would result in negative quantity");
+        }
+
+        int remaining = -delta;
+        List<InventoryBucket> byAvailable = new ArrayList<>(buckets);
+        byAvailable.sort((a, b) -> Integer.compare(b.getQuantityAvailable(), a.getQuantityAvailable()));
+        for (InventoryBucket bucket : byAvailable) {
+            int taken = Math.min(remaining, bucket.getQuantityAvailable());
+            if (taken > 0) {
+                inventoryBucketRepository.addAvailable(productId, bucket.getBucketIndex(), -taken, now);
+            }
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        totals.setQuantityAvailable(totals.getQuantityAvailable() + delta);
+        return totals;
+    }
+
+    // Evens out available quantity across buckets; reserved quantities stay where they are
+    @Transactional
+    public StockTotalsDTO rebalance(UUID productId) {
+        List<InventoryBucket> buckets = lockBuckets(productId);
+        if (buckets.isEmpty()) {
+            throw new StockOperationException("Inventory is not sharded for productId: " + productId);
+        }
+
+        // Moves are written as relative updates, so nothing is overwritten with values read earlier
+        StockTotalsDTO totals = totals(buckets);
+        int[] split = split(totals.getQuantityAvailable(), buckets.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (InventoryBucket bucket : buckets) {
+            int delta = split[bucket.getBucketIndex()] - bucket.getQuantityAvailable();
+            if (delta != 0) {
+                inventoryBucketRepository.addAvailable(productId, bucket.getBucketIndex(), delta, now);
+            }
+        }
+        log.debug("Rebalanced {} buckets for productId: {}", buckets.size(), productId);
+        return totals;
+    }
+
+    // Live totals for a product, read from its buckets when sharded, from Redis while it owns the counters, and from the row otherwise
+    @Transactional(readOnly = true)
+    public StockTotalsDTO getTotals(Inventory inventory) {
+        if (!inventory.isSharded()) {
+            RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+            StockTotalsDTO live = engine != null ? engine.getTotals(inventory.getProductId()) : null;
+            if (live != null) {
+                return live;
+            }
+            return StockTotalsDTO.builder()
+                    .quantityAvailable(inventory.getQuantityAvailable())
+                    .quantityReserved(inventory.getQuantityReserved())
+                    .shardCount(0)
+                    .build();
+        }
+        return inventoryBucketRepository.sumByProductId(inventory.getProductId());
+    }
+
+    @Transactional(readOnly = true)
+    public StockTotalsDTO getTotals(UUID productId) {
+        Inventory inventory = inventoryRepository.findByProductId(productId)
+                .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
+        return getTotals(inventory);
+    }
+
+    // For reads that projected the row into a DTO and never loaded the entity; a product has buckets only while sharded
+    public StockTotalsDTO getTotals(UUID productId, int quantityAvailable, int quantityReserved) {
+        StockTotalsDTO bucketTotals = inventoryBucketRepository.sumByProductId(productId);
+        if (bucketTotals.getShardCount() > 0) {
+            return bucketTotals;
+        }
+        RedisReservationEngine engine = redisReservationEngine.getIfAvailable();
+        StockTotalsDTO live = engine != null ? engine.getTotals(productId) : null;
+        if (live != null) {
+            return live;
+        }
+        return StockTotalsDTO.builder()
+                .quantityAvailable(quantityAvailable)
+                .quantityReserved(quantityReserved)
+                .shardCount(0)
+                .build();
+    }
+
+    // Copies bucket totals onto the inventory rows so list, low-stock and ledger reads stay close to live
+    @Scheduled(fixedDelayString = "${inventory.sharding.sync-interval-ms:5000}")
+    @Transactional
+    public void syncAggregates() {
+        LocalDateTime now = LocalDateTime.now();
+        int synced = 0;
+        for (UUID productId : inventoryRepository.findShardedProductIds()) {
+            StockTotalsDTO totals = inventoryBucketRepository.sumByProductId(productId);
+            synced += inventoryRepository.syncShardedTotals(productId,
+                    totals.getQuantityAvailable(), totals.getQuantityReserved(), now);
+        }
+        if (synced > 0) {
+            log.debug("Synced sharded stock totals for {} products", synced);
+        }
+    }
+
+    private int probe(UUID productId, int shardCount, int quantity, LocalDateTime now) {
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int bucket = (start + i) % shardCount;
+            if (inventoryBucketRepository.tryReserve(productId, bucket, quantity, now) == 1) {
+                return bucket;
+            }
+        }
+        return -1;
+    }
+
+    // Moves available stock from the other buckets into the fullest one until it covers the quantity
+    private int gather(UUID productId, int quantity, LocalDateTime now) {
+        List<InventoryBucket> buckets = lockBuckets(productId);
+        if (buckets.isEmpty() || totals(buckets).getQuantityAvailable() < quantity) {
+            return -1;
+        }
+
+        List<InventoryBucket> byAvailable = new ArrayList<>(buckets);
+        byAvailable.sort((a, b) -> Integer.compare(b.getQuantityAvailable(), a.getQuantityAvailable()));
+        InventoryBucket target = byAvailable.getFirst();
+        int missing = quantity - target.getQuantityAvailable();
+        for (InventoryBucket donor : byAvailable.subList(1, byAvailable.size())) {
+            if (missing <= 0) {
+                break;
+            }
+            int moved = Math.min(missing, donor.getQuantityAvailable());
+            if (moved > 0) {
+                inventoryBucketRepository.addAvailable(productId, donor.getBucketIndex(), -moved, now);
+                inventoryBucketRepository.addAvailable(productId, target.getBucketIndex(), moved, now);
+                missing -= moved;
+            }
+        }
+        return inventoryBucketRepository.tryReserve(productId, target.getBucketIndex(), quantity, now) == 1
+                ? target.getBucketIndex() : -1;
+    }
+
+    // Bulk bucket updates bypass the persistence context, so buckets loaded earlier in the
+    // transaction are refreshed from the locked rows before their quantities are used
+    private List<InventoryBucket> lockBuckets(UUID productId) {
+        List<InventoryBucket> buckets = inventoryBucketRepository.findByProductIdWithLock(productId);
+        buckets.forEach(entityManager::refresh);
+        return buckets;
+    }
+
+    private Inventory lockInventory(UUID productId) {
+        return inventoryRepository.findByProductIdWithLock(productId)
+                .orElseThrow(() -> new InventoryNotFoundException(productId.toString()));
+    }
+
+    private static int bucketOrDefault(Integer bucketIndex) {
+        return bucketIndex != null ? bucketIndex : 0;
+    }
+
+    private static int[] split(int quantity, int parts) {
+        int[] split = new int[parts];
+        for (int i = 0; i < parts; i++) {
+            split[i] = quantity / parts + (i < quantity % parts ? 1 : 0);
+        }
+        return split;
+    }
+
+    private static StockTotalsDTO totals(List<InventoryBucket> buckets) {
+        int available = 0;
+        int reserved = 0;
+        for (InventoryBucket bucket : buckets) {
+            available += bucket.getQuantityAvailable();
+            reserved += bucket.getQuantityReserved();
+        }
+        return StockTotalsDTO.builder()
+                .quantityAvailable(available)
+                .quantityReserved(reserved)
+                .shardCount(buckets.size())
+                .build();
+    }
+}
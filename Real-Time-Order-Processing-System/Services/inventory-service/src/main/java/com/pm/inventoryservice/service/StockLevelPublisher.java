@@ -0,0 +1,72 @@
+package com.pm.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.model.EventType;
+import com.pm.inventoryservice.model.OutboxEvent;
+import com.pm.inventoryservice.repository.InventoryJdbcRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes one STOCK_LEVEL_CHANGED outbox event per product a transaction moved stock on,
+ * carrying the product's stock as it will commit. Reservations, confirmations and expiries
+ * only publish order-keyed events, so without these a consumer materializing current stock
+ * from inventory-events would only catch up on the next admin snapshot. Called from the
+ * movement journal flush, which already runs once per transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockLevelPublisher {
+
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.streams.publish-stock-levels:false}")
+    private boolean enabled;
+
+    public void publish(Collection<UUID> inventoryIds) {
+        if (!enabled || inventoryIds.isEmpty()) {
+            return;
+        }
+        // Entity changes are otherwise flushed after the before-commit callbacks, too late for the read below
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(inventoryIds.size());
+        for (InventoryResponseDTO level : inventoryJdbcRepository.findStockLevels(inventoryIds)) {
+            try {
+                events.add(OutboxEvent.builder()
+                        .eventId(UUID.randomUUID())
+                        .aggregateId(level.getProductId())
+                        .aggregateType("INVENTORY")
+                        .eventType(EventType.STOCK_LEVEL_CHANGED)
+                        .payload(objectMapper.writeValueAsString(level))
+                        .published(false)
+                        .retryCount(0)
+                        .createdAt(now)
+                        .build());
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing stock level event: {}", e.getMessage());
+                throw new RuntimeException("Error serializing stock level event");
+            }
+        }
+        inventoryJdbcRepository.batchInsertOutboxEvents(events);
+        log.debug("Published stock levels for {} products", events.size());
+    }
+}
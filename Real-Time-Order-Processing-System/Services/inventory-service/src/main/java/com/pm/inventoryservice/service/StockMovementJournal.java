@@ -0,0 +1,101 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.model.StockMovement;
+import com.pm.inventoryservice.repository.InventoryJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Collects the stock movements written during a transaction and inserts them as a single
+ * JDBC batch right before that transaction commits. The movements commit or roll back
+ * together with the stock change they describe, but the hot path no longer pays an INSERT
+ * round trip per movement while it holds row locks.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockMovementJournal {
+
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final StockLevelPublisher stockLevelPublisher;
+
+    public void record(StockMovement movement) {
+        recordAll(List.of(movement));
+    }
+
+    public void recordAll(Collection<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (StockMovement movement : movements) {
+            if (movement.getMovementId() == null) {
+                movement.setMovementId(UUID.randomUUID());
+            }
+            if (movement.getCreatedAt() == null) {
+                movement.setCreatedAt(now);
+            }
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inventoryJdbcRepository.batchInsertMovements(new ArrayList<>(movements));
+            stockLevelPublisher.publish(inventoryIds(movements));
+            return;
+        }
+
+        pendingMovements().addAll(movements);
+    }
+
+    private static Set<UUID> inventoryIds(Collection<StockMovement> movements) {
+        Set<UUID> inventoryIds = new LinkedHashSet<>();
+        for (StockMovement movement : movements) {
+            inventoryIds.add(movement.getInventoryId());
+        }
+        return inventoryIds;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StockMovement> pendingMovements() {
+        List<StockMovement> pending = (List<StockMovement>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<StockMovement> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new JournalFlush(buffer));
+            pending = buffer;
+        }
+        return pending;
+    }
+
+    private final class JournalFlush implements TransactionSynchronization {
+
+        private final List<StockMovement> buffer;
+
+        private JournalFlush(List<StockMovement> buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            inventoryJdbcRepository.batchInsertMovements(buffer);
+            stockLevelPublisher.publish(inventoryIds(buffer));
+            log.debug("Flushed {} stock movements", buffer.size());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockMovementJournal.this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.pm.inventoryservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Keeps monthly partitions of stock_movements created ahead of time. Only acts when the
+ * table has been converted with db/partition-stock-movements.sql on PostgreSQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockMovementPartitionService {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${inventory.movements.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${inventory.movements.partition.cron:0 0 3 * * *}")
+    public void ensureUpcomingPartitions() {
+        if (!isPartitioned()) {
+            log.debug("stock_movements is not partitioned, skipping partition maintenance");
+            return;
+        }
+
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate next = month.plusMonths(1);
+            String partition = "stock_movements_p" + month.format(PARTITION_SUFFIX);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition +
+                    " PARTITION OF stock_movements FOR VALUES FROM ('" + month + "') TO ('" + next + "')");
+            month = next;
+        }
+        log.info("Ensured stock_movements partitions for the next {} months", monthsAhead);
+    }
+
+    private boolean isPartitioned() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return false;
+        }
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt " +
+                        "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = 'stock_movements')",
+                Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+}
@@ -0,0 +1,144 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.model.AllocationStrategy;
+import com.pm.inventoryservice.service.WarehouseAvailabilityCache.Site;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Decides which warehouses fill an order, purely in memory over the cached availability.
+ * NEAREST_FIRST fills each product from the closest warehouses that hold it. FEWEST_SPLITS
+ * repeatedly picks the warehouse that covers the most of what is still open, so an order one
+ * warehouse can fill completely ships from that one.
+ */
+@Component
+public class WarehouseAllocator {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    /**
+     * @return allocations per product, or null when the warehouses cannot cover the demand
+     */
+    public Map<UUID, List<Allocation>> allocate(Map<UUID, Integer> demand,
+                                                Map<UUID, Map<String, Integer>> availability,
+                                                Map<String, Site> sites,
+                                                AllocationStrategy strategy,
+                                                Double latitude,
+                                                Double longitude) {
+        Map<String, Double> distances = new HashMap<>();
+        for (Site site : sites.values()) {
+            distances.put(site.getCode(), latitude == null || longitude == null
+                    ? 0.0
+                    : distanceKm(latitude, longitude, site.getLatitude(), site.getLongitude()));
+        }
+
+        return strategy == AllocationStrategy.FEWEST_SPLITS
+                ? fewestSplits(demand, availability, distances)
+                : nearestFirst(demand, availability, distances);
+    }
+
+    private Map<UUID, List<Allocation>> nearestFirst(Map<UUID, Integer> demand,
+                                                     Map<UUID, Map<String, Integer>> availability,
+                                                     Map<String, Double> distances) {
+        Map<UUID, List<Allocation>> result = new HashMap<>();
+        for (Map.Entry<UUID, Integer> entry : demand.entrySet()) {
+            Map<String, Integer> stock = availability.getOrDefault(entry.getKey(), Map.of());
+            List<String> ranked = new ArrayList<>();
+            for (Map.Entry<String, Integer> warehouse : stock.entrySet()) {
+                if (warehouse.getValue() > 0 && distances.containsKey(warehouse.getKey())) {
+                    ranked.add(warehouse.getKey());
+                }
+            }
+            ranked.sort(Comparator.comparingDouble((String code) -> distances.get(code))
+                    .thenComparing(code -> -stock.get(code))
+                    .thenComparing(Comparator.naturalOrder()));
+
+            int remaining = entry.getValue();
+            List<Allocation> allocations = new ArrayList<>();
+            for (String code : ranked) {
+                int taken = Math.min(remaining, stock.get(code));
+                allocations.add(new Allocation(entry.getKey(), code, taken));
+                remaining -= taken;
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            if (remaining > 0) {
+                return null;
+            }
+            result.put(entry.getKey(), allocations);
+        }
+        return result;
+    }
+
+    private Map<UUID, List<Allocation>> fewestSplits(Map<UUID, Integer> demand,
+                                                     Map<UUID, Map<String, Integer>> availability,
+                                                     Map<String, Double> distances) {
+        Map<UUID, Integer> open = new HashMap<>(demand);
+        Map<UUID, List<Allocation>> result = new HashMap<>();
+
+        while (!open.isEmpty()) {
+            String best = null;
+            int bestCovered = 0;
+            for (String code : distances.keySet()) {
+                int covered = 0;
+                for (Map.Entry<UUID, Integer> entry : open.entrySet()) {
+                    int held = availability.getOrDefault(entry.getKey(), Map.of()).getOrDefault(code, 0);
+                    covered += Math.min(entry.getValue(), Math.max(held, 0));
+                }
+                if (covered > bestCovered || (covered == bestCovered && covered > 0 && closer(code, best, distances))) {
+                    best = code;
+                    bestCovered = covered;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+
+            Iterator<Map.Entry<UUID, Integer>> iterator = open.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<UUID, Integer> entry = iterator.next();
+                int held = availability.getOrDefault(entry.getKey(), Map.of()).getOrDefault(best, 0);
+                int taken = Math.min(entry.getValue(), Math.max(held, 0));
+                if (taken == 0) {
+                    continue;
+                }
+                result.computeIfAbsent(entry.getKey(), id -> new ArrayList<>()).add(new Allocation(entry.getKey(), best, taken));
+                if (taken == entry.getValue()) {
+                    iterator.remove();
+                } else {
+                    entry.setValue(entry.getValue() - taken);
+                }
+            }
+            distances.remove(best);
+        }
+        return result;
+    }
+
+    private static boolean closer(String candidate, String current, Map<String, Double> distances) {
+        if (current == null) {
+            return true;
+        }
+        int byDistance = Double.compare(distances.get(candidate), distances.get(current));
+        return byDistance < 0 || (byDistance == 0 && candidate.compareTo(current) < 0);
+    }
+
+    private static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Allocation {
+        private UUID productId;
+        private String warehouseCode;
+        private int quantity;
+    }
+}
@@ -0,0 +1,117 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.model.Warehouse;
+import com.pm.inventoryservice.model.WarehouseStock;
+import com.pm.inventoryservice.repository.WarehouseRepository;
+import com.pm.inventoryservice.repository.WarehouseStockRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-product warehouse availability and warehouse locations kept in memory for the
+ * allocator. A product is loaded with one query on first use; reservations apply their
+ * deltas after commit. The map may lag other instances, which the guarded warehouse UPDATEs
+ * catch, and it is dropped periodically. Products without warehouse rows are not cached, as
+ * another instance may give them their first row at any time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarehouseAvailabilityCache {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+
+    private final ConcurrentMap<UUID, ConcurrentMap<String, Integer>> availability = new ConcurrentHashMap<>();
+    private volatile Map<String, Site> sites = Map.of();
+
+    // Empty for products that are not stocked per warehouse
+    public Map<String, Integer> availability(UUID productId) {
+        ConcurrentMap<String, Integer> cached = availability.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        ConcurrentMap<String, Integer> loaded = warehouseStockRepository.findByProductId(productId).stream()
+                .filter(stock -> sites.containsKey(stock.getWarehouseCode()))
+                .collect(Collectors.toConcurrentMap(WarehouseStock::getWarehouseCode, WarehouseStock::getQuantityAvailable));
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        ConcurrentMap<String, Integer> existing = availability.putIfAbsent(productId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // Warehouse rows are never removed, so a cached product stays warehouse-managed
+    public boolean isCached(UUID productId) {
+        return availability.containsKey(productId);
+    }
+
+    public Map<String, Site> sites() {
+        return sites;
+    }
+
+    public void applyAfterCommit(UUID productId, String warehouseCode, int delta) {
+        afterCommit(() -> availability.computeIfPresent(productId, (id, stock) -> {
+            stock.merge(warehouseCode, delta, Integer::sum);
+            return stock;
+        }));
+    }
+
+    public void evictAfterCommit(UUID productId) {
+        afterCommit(() -> availability.remove(productId));
+    }
+
+    public void evict(UUID productId) {
+        availability.remove(productId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshSites() {
+        sites = warehouseRepository.findByActiveTrue().stream()
+                .collect(Collectors.toUnmodifiableMap(Warehouse::getCode,
+                        warehouse -> new Site(warehouse.getCode(), warehouse.getLatitude(), warehouse.getLongitude()),
+                        (first, second) -> first));
+        availability.clear();
+        log.info("Loaded {} active warehouses for allocation", sites.size());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.warehouse.cache-refresh-ms:60000}")
+    public void expire() {
+        availability.clear();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Site {
+        private String code;
+        private double latitude;
+        private double longitude;
+    }
+}
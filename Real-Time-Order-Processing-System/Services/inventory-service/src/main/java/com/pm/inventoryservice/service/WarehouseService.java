@@ -0,0 +1,233 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.request.AllocationPreferenceDTO;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.request.WarehouseRequestDTO;
+import com.pm.inventoryservice.dto.response.WarehouseResponseDTO;
+import com.pm.inventoryservice.dto.response.WarehouseStockResponseDTO;
+import com.pm.inventoryservice.exception.NotFoundException;
+import com.pm.inventoryservice.exception.StockOperationException;
+import com.pm.inventoryservice.model.AllocationStrategy;
+import com.pm.inventoryservice.model.StockReservation;
+import com.pm.inventoryservice.model.Warehouse;
+import com.pm.inventoryservice.model.WarehouseStock;
+import com.pm.inventoryservice.repository.WarehouseRepository;
+import com.pm.inventoryservice.repository.WarehouseStockRepository;
+import com.pm.inventoryservice.service.WarehouseAllocator.Allocation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WarehouseService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final WarehouseAvailabilityCache warehouseAvailabilityCache;
+    private final WarehouseAllocator warehouseAllocator;
+    private final ObjectProvider<RedisReservationEngine> redisReservationEngine;
+
+    @Value("${inventory.warehouse.default-strategy:NEAREST_FIRST}")
+    private AllocationStrategy defaultStrategy;
+
+    @Transactional
+    public WarehouseResponseDTO createWarehouse(WarehouseRequestDTO requestDTO) {
+        if (warehouseRepository.existsByCode(requestDTO.getCode())) {
+            throw new StockOperationException("Warehouse already exists with code: " + requestDTO.getCode());
+        }
+        Warehouse warehouse = warehouseRepository.save(Warehouse.builder()
+                .code(requestDTO.getCode())
+                .name(requestDTO.getName())
+                .latitude(requestDTO.getLatitude())
+                .longitude(requestDTO.getLongitude())
+                .active(true)
+                .build());
+        refreshSitesAfterCommit();
+        log.info("Created warehouse: {}", warehouse.getCode());
+        return toResponseDTO(warehouse);
+    }
+
+    @Transactional
+    public WarehouseResponseDTO setActive(String code, boolean active) {
+        Warehouse warehouse = getWarehouseOrThrow(code);
+        warehouse.setActive(active);
+        refreshSitesAfterCommit();
+        log.info("Warehouse {} is now {}", code, active ? "active" : "inactive");
+        return toResponseDTO(warehouseRepository.save(warehouse));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WarehouseResponseDTO> getWarehouses() {
+        return warehouseRepository.findAll().stream()
+                .map(this::toResponseDTO)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<WarehouseStockResponseDTO> getStock(UUID productId) {
+        return warehouseStockRepository.findByProductId(productId).stream()
+                .map(this::toStockResponseDTO)
+                .toList();
+    }
+
+    // Read from the table unless cached: another instance may have just given the product its first warehouse row
+    public boolean isWarehouseManaged(UUID productId) {
+        return warehouseAvailabilityCache.isCached(productId) || warehouseStockRepository.existsByProductId(productId);
+    }
+
+    /**
+     * Changes one warehouse's available stock. The caller applies the same delta to the
+     * product's inventory row in the same transaction.
+     */
+    @Transactional
+    public WarehouseStockResponseDTO adjust(String code, UUID productId, int delta) {
+        redisReservationEngine.ifAvailable(engine -> engine.requireDatabaseMode("Warehouse stock"));
+        Warehouse warehouse = getWarehouseOrThrow(code);
+        if (!warehouse.isActive()) {
+            throw new StockOperationException("Warehouse is inactive: " + code);
+        }
+
+        WarehouseStock stock = warehouseStockRepository.findByProductIdAndWarehouseCodeWithLock(productId, code)
+                .orElseGet(() -> WarehouseStock.builder()
+                        .productId(productId)
+                        .warehouseCode(code)
+                        .build());
+        if (stock.getQuantityAvailable() + delta < 0) {
+            throw new StockOperationException("Adjustment would result in negative quantity in warehouse: " + code);
+        }
+
+        stock.setQuantityAvailable(stock.getQuantityAvailable() + delta);
+        stock.setUpdatedAt(LocalDateTime.now());
+        WarehouseStock saved = warehouseStockRepository.save(stock);
+        warehouseAvailabilityCache.evictAfterCommit(productId);
+        return toStockResponseDTO(saved);
+    }
+
+    /**
+     * Picks warehouses for the warehouse-stocked items of an order and holds their stock.
+     * The decision runs on the cached availability; the guarded UPDATEs then confirm it, and a
+     * stale decision is undone and retried once against freshly loaded availability.
+     *
+     * @return allocations per product; products not stocked per warehouse are absent
+     */
+    @Transactional
+    public Map<UUID, List<Allocation>> reserve(List<ReservationItemDTO> items, AllocationPreferenceDTO preference) {
+        Map<UUID, Integer> demand = new TreeMap<>();
+        for (ReservationItemDTO item : items) {
+            if (isWarehouseManaged(item.getProductId())) {
+                demand.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        if (demand.isEmpty()) {
+            return Map.of();
+        }
+
+        AllocationStrategy strategy = preference != null && preference.getStrategy() != null
+                ? preference.getStrategy() : defaultStrategy;
+        Double latitude = preference != null ? preference.getLatitude() : null;
+        Double longitude = preference != null ? preference.getLongitude() : null;
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Map<UUID, Map<String, Integer>> availability = new HashMap<>();
+            demand.keySet().forEach(productId -> availability.put(productId, warehouseAvailabilityCache.availability(productId)));
+
+            Map<UUID, List<Allocation>> allocations = warehouseAllocator.allocate(demand, availability,
+                    warehouseAvailabilityCache.sites(), strategy, latitude, longitude);
+            if (allocations == null) {
+                demand.keySet().forEach(warehouseAvailabilityCache::evict);
+                continue;
+            }
+
+            List<Allocation> applied = new ArrayList<>();
+            boolean confirmed = true;
+            for (List<Allocation> productAllocations : allocations.values()) {
+                for (Allocation allocation : productAllocations) {
+                    if (warehouseStockRepository.tryReserve(allocation.getProductId(), allocation.getWarehouseCode(),
+                            allocation.getQuantity(), now) != 1) {
+                        confirmed = false;
+                        break;
+                    }
+                    applied.add(allocation);
+                }
+                if (!confirmed) {
+                    break;
+                }
+            }
+
+            if (confirmed) {
+                applied.forEach(allocation -> warehouseAvailabilityCache.applyAfterCommit(
+                        allocation.getProductId(), allocation.getWarehouseCode(), -allocation.getQuantity()));
+                return allocations;
+            }
+
+            for (Allocation allocation : applied) {
+                warehouseStockRepository.releaseReserved(allocation.getProductId(), allocation.getWarehouseCode(),
+                        allocation.getQuantity(), now);
+            }
+            demand.keySet().forEach(warehouseAvailabilityCache::evict);
+            log.debug("Warehouse allocation was stale on attempt {}, reloading availability", attempt + 1);
+        }
+        throw new StockOperationException("Insufficient warehouse stock for products: " + demand.keySet());
+    }
+
+    @Transactional
+    public void confirm(StockReservation reservation) {
+        warehouseStockRepository.confirmReserved(reservation.getProductId(), reservation.getWarehouseCode(),
+                reservation.getQuantityReserved(), LocalDateTime.now());
+    }
+
+    @Transactional
+    public void release(StockReservation reservation) {
+        warehouseStockRepository.releaseReserved(reservation.getProductId(), reservation.getWarehouseCode(),
+                reservation.getQuantityReserved(), LocalDateTime.now());
+        warehouseAvailabilityCache.applyAfterCommit(reservation.getProductId(), reservation.getWarehouseCode(),
+                reservation.getQuantityReserved());
+    }
+
+    private void refreshSitesAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                warehouseAvailabilityCache.refreshSites();
+            }
+        });
+    }
+
+    private Warehouse getWarehouseOrThrow(String code) {
+        return warehouseRepository.findByCode(code)
+                .orElseThrow(() -> new NotFoundException("Warehouse not found: " + code));
+    }
+
+    private WarehouseResponseDTO toResponseDTO(Warehouse warehouse) {
+        return WarehouseResponseDTO.builder()
+                .warehouseId(warehouse.getWarehouseId())
+                .code(warehouse.getCode())
+                .name(warehouse.getName())
+                .latitude(warehouse.getLatitude())
+                .longitude(warehouse.getLongitude())
+                .active(warehouse.isActive())
+                .createdAt(warehouse.getCreatedAt())
+                .build();
+    }
+
+    private WarehouseStockResponseDTO toStockResponseDTO(WarehouseStock stock) {
+        return WarehouseStockResponseDTO.builder()
+                .productId(stock.getProductId())
+                .warehouseCode(stock.getWarehouseCode())
+                .quantityAvailable(stock.getQuantityAvailable())
+                .quantityReserved(stock.getQuantityReserved())
+                .updatedAt(stock.getUpdatedAt())
+                .build();
+    }
+}
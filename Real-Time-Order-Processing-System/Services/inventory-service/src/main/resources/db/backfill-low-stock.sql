@@ -0,0 +1,21 @@
+-- One-time backfill of inventory.low_stock for rows written before the column existed.
+-- Every write path maintains the flag afterwards, so this only needs to run once per database.
+-- Rows are fixed in batches, each committed on its own, so no long-running transaction holds row locks.
+-- Run outside a transaction block (e.g. psql with autocommit on), as the DO block commits between batches.
+
+DO $$
+DECLARE
+    updated integer;
+BEGIN
+    LOOP
+        UPDATE inventory SET low_stock = (quantity_available <= reorder_level)
+        WHERE inventory_id IN (
+            SELECT inventory_id FROM inventory
+            WHERE low_stock IS DISTINCT FROM (quantity_available <= reorder_level)
+            LIMIT 10000
+        );
+        GET DIAGNOSTICS updated = ROW_COUNT;
+        EXIT WHEN updated = 0;
+        COMMIT;
+    END LOOP;
+END $$;
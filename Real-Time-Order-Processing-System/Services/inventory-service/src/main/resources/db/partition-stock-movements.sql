@@ -0,0 +1,54 @@
+-- One-time conversion of stock_movements into a table range-partitioned by month on created_at.
+-- Run against the inventory database during a maintenance window. Afterwards
+-- StockMovementPartitionService creates the upcoming monthly partitions on startup and daily.
+
+BEGIN;
+
+ALTER TABLE stock_movements RENAME TO stock_movements_legacy;
+ALTER INDEX IF EXISTS idx_stock_movements_inventory_created RENAME TO idx_stock_movements_legacy_inventory_created;
+
+CREATE TABLE stock_movements (
+    movement_id       uuid         NOT NULL,
+    inventory_id      uuid         NOT NULL,
+    movement_type     varchar(255) NOT NULL,
+    quantity          integer      NOT NULL,
+    previous_quantity integer      NOT NULL,
+    new_quantity      integer      NOT NULL,
+    reference_id      uuid,
+    reference_type    varchar(255),
+    reason            varchar(255),
+    created_at        timestamp(6) NOT NULL,
+    created_by        varchar(255),
+    PRIMARY KEY (movement_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_stock_movements_inventory_created ON stock_movements (inventory_id, created_at);
+
+-- Monthly partitions from the oldest movement up to three months ahead
+DO $$
+DECLARE
+    month_start date := date_trunc('month', COALESCE((SELECT min(created_at) FROM stock_movements_legacy), now()))::date;
+    last_month  date := (date_trunc('month', now()) + interval '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF stock_movements FOR VALUES FROM (%L) TO (%L)',
+                       'stock_movements_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start,
+                       (month_start + interval '1 month')::date);
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Safety net for rows outside the pre-created range; should stay empty
+CREATE TABLE stock_movements_default PARTITION OF stock_movements DEFAULT;
+
+INSERT INTO stock_movements (movement_id, inventory_id, movement_type, quantity, previous_quantity, new_quantity,
+                             reference_id, reference_type, reason, created_at, created_by)
+SELECT movement_id, inventory_id, movement_type, quantity, previous_quantity, new_quantity,
+       reference_id, reference_type, reason, created_at, created_by
+FROM stock_movements_legacy;
+
+COMMIT;
+
+-- After verifying row counts:
+-- DROP TABLE stock_movements_legacy;
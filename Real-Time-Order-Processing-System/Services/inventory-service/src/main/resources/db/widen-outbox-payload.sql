@@ -0,0 +1,4 @@
+-- One-time widening of outbox_events.payload, which was created as varchar(255) before it was mapped as TEXT.
+-- ddl-auto=update never alters an existing column, so run this once against databases created before the change.
+
+ALTER TABLE outbox_events ALTER COLUMN payload TYPE text;
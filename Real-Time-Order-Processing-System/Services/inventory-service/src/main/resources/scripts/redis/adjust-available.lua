@@ -0,0 +1,17 @@
+-- Adds a (possibly negative) delta to a product's available stock, refusing to go below zero.
+-- KEYS: mode, stock hash
+-- ARGV: delta
+local mode = redis.call('GET', KEYS[1])
+if mode ~= 'REDIS' then
+    return {mode or 'DATABASE'}
+end
+local available = redis.call('HGET', KEYS[2], 'available')
+if not available then
+    return {'MISSING'}
+end
+local next = tonumber(available) + tonumber(ARGV[1])
+if next < 0 then
+    return {'INSUFFICIENT', available}
+end
+redis.call('HSET', KEYS[2], 'available', next)
+return {'OK', tostring(next), redis.call('HGET', KEYS[2], 'reserved')}
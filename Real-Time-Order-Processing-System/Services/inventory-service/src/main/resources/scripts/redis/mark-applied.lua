@@ -0,0 +1,7 @@
+-- Records how far the change stream has been applied to the database and drops applied entries.
+-- KEYS: change stream, applied marker
+-- ARGV: id of the last applied entry
+redis.call('SET', KEYS[2], ARGV[1])
+redis.call('XTRIM', KEYS[1], 'MINID', ARGV[1])
+redis.call('XDEL', KEYS[1], ARGV[1])
+return redis.call('XLEN', KEYS[1])
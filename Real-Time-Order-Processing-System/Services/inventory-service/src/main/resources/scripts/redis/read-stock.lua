@@ -0,0 +1,14 @@
+-- Reads a product's counters, the id of the last stream entry that changed them and the mode.
+-- KEYS: mode, stock hash
+local mode = redis.call('GET', KEYS[1])
+if not mode or mode == 'DATABASE' then
+    return {'DATABASE'}
+end
+local stock = redis.call('HMGET', KEYS[2], 'available', 'reserved', 'last')
+if not stock[1] then
+    if mode == 'REDIS' then
+        return {'MISSING'}
+    end
+    return {mode}
+end
+return {'OK', stock[1], stock[2], stock[3], mode}
@@ -0,0 +1,7 @@
+-- Extends a lock only for the owner that holds it.
+-- KEYS: lock
+-- ARGV: owner token, ttl (ms)
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
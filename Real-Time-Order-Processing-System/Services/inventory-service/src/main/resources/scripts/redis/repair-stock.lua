@@ -0,0 +1,8 @@
+-- Overwrites a product's counters, but only if no change has been made since it was read.
+-- KEYS: stock hash
+-- ARGV: last stream id seen, available, reserved
+if redis.call('HGET', KEYS[1], 'last') ~= ARGV[1] then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'available', ARGV[2], 'reserved', ARGV[3])
+return 1
@@ -0,0 +1,46 @@
+-- All-or-nothing hold for one order.
+-- KEYS: mode, hold, hold expiry index, change stream, settled marker, then one stock hash per product
+-- ARGV: orderId, expiresAt (epoch ms), createdAt (epoch ms), then productId, quantity, reservationId per product
+local mode = redis.call('GET', KEYS[1])
+if mode ~= 'REDIS' then
+    return {mode or 'DATABASE'}
+end
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return {'EXISTS'}
+end
+-- A settled order is not held again: the counters would move for a hold the database never records
+local settled = redis.call('GET', KEYS[5])
+if settled then
+    local sep = string.find(settled, '|', 1, true)
+    return {'SETTLED', string.sub(settled, 1, sep - 1), string.sub(settled, sep + 1)}
+end
+
+local products = #KEYS - 5
+for i = 1, products do
+    local available = redis.call('HGET', KEYS[5 + i], 'available')
+    if not available then
+        return {'MISSING', tostring(i)}
+    end
+    if tonumber(available) < tonumber(ARGV[3 + (i - 1) * 3 + 2]) then
+        return {'INSUFFICIENT', tostring(i)}
+    end
+end
+
+local items = {}
+for i = 1, products do
+    local base = 3 + (i - 1) * 3
+    local productId, quantity, reservationId = ARGV[base + 1], tonumber(ARGV[base + 2]), ARGV[base + 3]
+    redis.call('HINCRBY', KEYS[5 + i], 'available', -quantity)
+    redis.call('HINCRBY', KEYS[5 + i], 'reserved', quantity)
+    redis.call('HSET', KEYS[2], productId, quantity .. ':' .. reservationId)
+    items[#items + 1] = productId .. ':' .. quantity .. ':' .. reservationId
+end
+redis.call('HSET', KEYS[2], '_expires', ARGV[2], '_created', ARGV[3])
+redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1])
+
+local id = redis.call('XADD', KEYS[4], '*', 'type', 'RESERVED', 'orderId', ARGV[1],
+        'items', table.concat(items, ','), 'expiresAt', ARGV[2], 'at', ARGV[3])
+for i = 1, products do
+    redis.call('HSET', KEYS[5 + i], 'last', id)
+end
+return {'OK', id}
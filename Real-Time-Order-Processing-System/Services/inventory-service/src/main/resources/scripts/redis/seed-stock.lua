@@ -0,0 +1,8 @@
+-- Creates a product's counters from the database row unless another caller got there first.
+-- KEYS: stock hash
+-- ARGV: available, reserved
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'available', ARGV[1], 'reserved', ARGV[2], 'last', '0-0')
+return 1
@@ -0,0 +1,56 @@
+-- Confirms, releases or expires every line of an order's hold.
+-- KEYS: mode, hold, hold expiry index, change stream, settled marker
+-- ARGV: orderId, outcome (CONFIRMED | RELEASED | EXPIRED), stock key prefix, now (epoch ms), settled marker ttl (ms)
+-- Stock keys are derived from the hold; they share the hold's hash tag and therefore its slot.
+local mode = redis.call('GET', KEYS[1])
+if mode ~= 'REDIS' then
+    return {mode or 'DATABASE'}
+end
+
+local hold = redis.call('HGETALL', KEYS[2])
+if #hold == 0 then
+    local settled = redis.call('GET', KEYS[5])
+    if settled then
+        local sep = string.find(settled, '|', 1, true)
+        return {'SETTLED', string.sub(settled, 1, sep - 1), string.sub(settled, sep + 1)}
+    end
+    return {'NOT_FOUND'}
+end
+
+local outcome = ARGV[2]
+local expires = tonumber(redis.call('HGET', KEYS[2], '_expires'))
+local now = tonumber(ARGV[4])
+if outcome == 'CONFIRMED' and expires < now then
+    return {'EXPIRED'}
+end
+if outcome == 'EXPIRED' and expires >= now then
+    return {'NOT_EXPIRED'}
+end
+
+local items = {}
+local keys = {}
+for i = 1, #hold, 2 do
+    local field = hold[i]
+    if string.sub(field, 1, 1) ~= '_' then
+        local value = hold[i + 1]
+        local quantity = tonumber(string.sub(value, 1, string.find(value, ':', 1, true) - 1))
+        local key = ARGV[3] .. field
+        if outcome ~= 'CONFIRMED' then
+            redis.call('HINCRBY', key, 'available', quantity)
+        end
+        redis.call('HINCRBY', key, 'reserved', -quantity)
+        items[#items + 1] = field .. ':' .. value
+        keys[#keys + 1] = key
+    end
+end
+local joined = table.concat(items, ',')
+
+redis.call('DEL', KEYS[2])
+redis.call('ZREM', KEYS[3], ARGV[1])
+redis.call('SET', KEYS[5], outcome .. '|' .. joined, 'PX', ARGV[5])
+
+local id = redis.call('XADD', KEYS[4], '*', 'type', outcome, 'orderId', ARGV[1], 'items', joined, 'at', ARGV[4])
+for _, key in ipairs(keys) do
+    redis.call('HSET', key, 'last', id)
+end
+return {'OK', id, joined, tostring(expires)}
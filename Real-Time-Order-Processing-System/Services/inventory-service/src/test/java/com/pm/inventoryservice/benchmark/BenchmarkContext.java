@@ -0,0 +1,24 @@
+package com.pm.inventoryservice.benchmark;
+
+import com.pm.inventoryservice.InventoryServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the service against the in-memory H2 database of the test profile, without a web
+ * server, so benchmarks call the same beans the endpoints do.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(InventoryServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.datasource.hikari.maximum-pool-size=64")
+                .run();
+    }
+}
@@ -0,0 +1,93 @@
+package com.pm.inventoryservice.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.inventoryservice.dto.response.InventoryResponseDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.mapper.InventoryMapper;
+import com.pm.inventoryservice.model.Inventory;
+import com.pm.inventoryservice.model.ReservationStatus;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-mutation CPU work that does not touch the database: the outbox payload serialization
+ * that runs for the snapshot, reservation and alert events of one change, and the entity to
+ * response mapping. The ObjectMapper is built the way Spring Boot builds the injected one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int reservationLines;
+
+    private ObjectMapper objectMapper;
+    private InventoryMapper inventoryMapper;
+    private Inventory inventory;
+    private InventoryResponseDTO snapshot;
+    private List<StockReservationResponseDTO> reservations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        inventoryMapper = Mappers.getMapper(InventoryMapper.class);
+
+        LocalDateTime now = LocalDateTime.now();
+        inventory = Inventory.builder()
+                .inventoryId(UUID.randomUUID())
+                .productId(UUID.randomUUID())
+                .productName("Benchmark Product")
+                .sku("BENCH-0001")
+                .quantityAvailable(120)
+                .quantityReserved(30)
+                .reorderLevel(20)
+                .reorderQuantity(100)
+                .warehouseLocation("A-01-02")
+                .createdAt(now)
+                .updatedAt(now)
+                .version(7L)
+                .build();
+        snapshot = inventoryMapper.toResponseDTO(inventory);
+
+        UUID orderId = UUID.randomUUID();
+        reservations = new ArrayList<>(reservationLines);
+        for (int i = 0; i < reservationLines; i++) {
+            reservations.add(StockReservationResponseDTO.builder()
+                    .reservationId(UUID.randomUUID())
+                    .orderId(orderId)
+                    .productId(UUID.randomUUID())
+                    .quantityReserved(2)
+                    .reservationStatus(ReservationStatus.PENDING)
+                    .expiresAt(now.plusMinutes(15))
+                    .createdAt(now)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public String serializeInventorySnapshot() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(snapshot);
+    }
+
+    @Benchmark
+    public String serializeReservations() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(reservations);
+    }
+
+    @Benchmark
+    public InventoryResponseDTO mapToResponseDTO() {
+        return inventoryMapper.toResponseDTO(inventory);
+    }
+}
@@ -0,0 +1,95 @@
+package com.pm.inventoryservice.benchmark;
+
+import com.pm.inventoryservice.dto.request.InventoryCreateRequestDTO;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.StockCheckResponseDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.service.InventoryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * reserveStock and checkStockBatch against H2.
+ *
+ * Contention is set by products, the size of the catalog carts are drawn from: with 50
+ * products every cart of 50 locks the whole catalog, with 5000 carts rarely overlap.
+ * Combine with -t to set the number of concurrent callers, e.g. -Djmh.args="-f 1 -t 8".
+ * Cart lines are sorted by productId, the order concurrent batches lock rows in, so the
+ * numbers measure lock waits and not deadlock aborts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationBenchmark {
+
+    // Every line reserves one unit, so stock never runs out within a run
+    private static final int INITIAL_STOCK = 1_000_000_000;
+
+    @Param({"1", "10", "50"})
+    public int cartSize;
+
+    @Param({"50", "5000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private List<UUID> productIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        inventoryService = context.getBean(InventoryService.class);
+        productIds = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            UUID productId = UUID.randomUUID();
+            inventoryService.createInventory(InventoryCreateRequestDTO.builder()
+                    .productId(productId)
+                    .productName("Benchmark Product " + i)
+                    .sku("BENCH-" + productId)
+                    .initialQuantity(INITIAL_STOCK)
+                    .reorderLevel(0)
+                    .reorderQuantity(1)
+                    .build(), INITIAL_STOCK);
+            productIds.add(productId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<StockReservationResponseDTO> reserveStock() {
+        return inventoryService.reserveStock(UUID.randomUUID(), randomCart());
+    }
+
+    @Benchmark
+    public List<StockCheckResponseDTO> checkStockBatch() {
+        return inventoryService.checkStockBatch(randomCart());
+    }
+
+    private List<ReservationItemDTO> randomCart() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int start = random.nextInt(products);
+        List<ReservationItemDTO> cart = new ArrayList<>(cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            cart.add(ReservationItemDTO.builder()
+                    .productId(productIds.get((start + i) % products))
+                    .quantity(1)
+                    .build());
+        }
+        cart.sort(Comparator.comparing(ReservationItemDTO::getProductId));
+        return cart;
+    }
+}
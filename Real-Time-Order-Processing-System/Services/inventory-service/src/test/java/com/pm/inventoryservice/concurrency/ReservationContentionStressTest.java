@@ -0,0 +1,275 @@
+package com.pm.inventoryservice.concurrency;
+
+import com.pm.inventoryservice.dto.ledger.LedgerVerificationReportDTO;
+import com.pm.inventoryservice.dto.request.InventoryCreateRequestDTO;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.exception.InvalidReservationStateException;
+import com.pm.inventoryservice.exception.StockOperationException;
+import com.pm.inventoryservice.service.InventoryLedgerService;
+import com.pm.inventoryservice.service.InventoryService;
+import com.pm.inventoryservice.service.ReservationCleanupService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress harness for the database reservation path
+ *
+ * Many threads reserve mixed carts over a handful of products while others confirm,
+ * release and expire the orders those reservations belong to. Afterwards it checks:
+ * - no negative available or reserved stock
+ * - reserved stock equals the sum of PENDING reservations
+ * - available + reserved + confirmed equals the stock the products started with
+ * - the movement ledger replays to the inventory rows
+ * - no lock or optimistic-lock failure outlives the service's own retries
+ *
+ * Throughput, latency, lock failures and optimistic-lock failures are logged per run.
+ * Size the run with -Dstress.threads, -Dstress.operations, -Dstress.products and
+ * -Dstress.initial-stock.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Reservation Contention Stress Harness")
+class ReservationContentionStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationContentionStressTest.class);
+
+    private static final int THREADS = Integer.getInteger("stress.threads", 16);
+    private static final int OPERATIONS_PER_THREAD = Integer.getInteger("stress.operations", 150);
+    private static final int PRODUCTS = Integer.getInteger("stress.products", 4);
+    private static final int INITIAL_STOCK = Integer.getInteger("stress.initial-stock", 400);
+    private static final int MAX_CART_LINES = 3;
+    private static final int MAX_LINE_QUANTITY = 5;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ReservationCleanupService reservationCleanupService;
+
+    @Autowired
+    private InventoryLedgerService inventoryLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Concurrent reserve, confirm, release and expiry keep stock consistent")
+    void reservationPathKeepsInvariantsUnderContention() throws Exception {
+        List<UUID> productIds = createProducts();
+        Queue<UUID> pendingOrders = new ConcurrentLinkedQueue<>();
+        Counters counters = new Counters();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(executor.submit(() -> runWorker(productIds, pendingOrders, counters, start)));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        List<Long> latencies = new ArrayList<>(THREADS * OPERATIONS_PER_THREAD);
+        for (Future<long[]> worker : workers) {
+            for (long latency : worker.get(5, TimeUnit.MINUTES)) {
+                latencies.add(latency);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        report(counters, latencies, elapsedNanos);
+
+        assertEquals(0, counters.unexpected.get(), "Unexpected failures: " + counters.firstUnexpected);
+        // Conflicts are retried inside the service, so none should reach a caller
+        assertEquals(0, counters.lockFailures.get(), "Lock failures reached callers");
+        assertEquals(0, counters.optimisticLockFailures.get(), "Optimistic-lock failures reached callers");
+        assertTrue(counters.reserved.get() > 0, "No reservation succeeded, the run did not exercise the path");
+        assertStockInvariants(productIds);
+        assertLedgerConsistent();
+    }
+
+    // ========================================
+    // WORKLOAD
+    // ========================================
+
+    private long[] runWorker(List<UUID> productIds, Queue<UUID> pendingOrders, Counters counters,
+                             CountDownLatch start) throws InterruptedException {
+        long[] latencies = new long[OPERATIONS_PER_THREAD];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        start.await();
+
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+            int roll = random.nextInt(100);
+            UUID orderId = roll < 50 ? UUID.randomUUID() : pendingOrders.poll();
+            long opStart = System.nanoTime();
+            try {
+                if (orderId == null) {
+                    reservationCleanupService.cleanUpExpiredReservations();
+                    counters.cleanups.incrementAndGet();
+                } else if (roll < 50) {
+                    inventoryService.reserveStock(orderId, randomCart(productIds, random));
+                    pendingOrders.add(orderId);
+                    counters.reserved.incrementAndGet();
+                } else if (roll < 70) {
+                    inventoryService.confirmReservation(orderId);
+                    counters.confirmed.incrementAndGet();
+                } else if (roll < 85) {
+                    inventoryService.releaseReservation(orderId);
+                    counters.released.incrementAndGet();
+                } else {
+                    // The order was taken off the queue, so no other worker touches it while it is backdated
+                    jdbcTemplate.update("UPDATE stock_reservation SET expires_at = ? WHERE order_id = ? AND status = 'PENDING'",
+                            LocalDateTime.now().minusMinutes(1), orderId);
+                    reservationCleanupService.cleanUpExpiredReservations();
+                    counters.expired.incrementAndGet();
+                }
+            } catch (OptimisticLockingFailureException e) {
+                counters.optimisticLockFailures.incrementAndGet();
+                requeue(pendingOrders, orderId, roll);
+            } catch (PessimisticLockingFailureException e) {
+                counters.lockFailures.incrementAndGet();
+                requeue(pendingOrders, orderId, roll);
+            } catch (StockOperationException e) {
+                counters.rejected.incrementAndGet();
+            } catch (InvalidReservationStateException e) {
+                counters.stateConflicts.incrementAndGet();
+            } catch (RuntimeException e) {
+                if (counters.unexpected.getAndIncrement() == 0) {
+                    counters.firstUnexpected = e.toString();
+                }
+            }
+            latencies[i] = System.nanoTime() - opStart;
+        }
+        return latencies;
+    }
+
+    // A rolled-back confirm, release or expiry leaves the order pending, so it goes back on the queue
+    private static void requeue(Queue<UUID> pendingOrders, UUID orderId, int roll) {
+        if (orderId != null && roll >= 50) {
+            pendingOrders.add(orderId);
+        }
+    }
+
+    private static List<ReservationItemDTO> randomCart(List<UUID> productIds, ThreadLocalRandom random) {
+        List<UUID> shuffled = new ArrayList<>(productIds);
+        Collections.shuffle(shuffled, random);
+        int lines = 1 + random.nextInt(Math.min(MAX_CART_LINES, shuffled.size()));
+        List<ReservationItemDTO> cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            cart.add(ReservationItemDTO.builder()
+                    .productId(shuffled.get(i))
+                    .quantity(1 + random.nextInt(MAX_LINE_QUANTITY))
+                    .build());
+        }
+        return cart;
+    }
+
+    // ========================================
+    // INVARIANTS
+    // ========================================
+
+    private void assertStockInvariants(List<UUID> productIds) {
+        for (UUID productId : productIds) {
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "SELECT quantity_available, quantity_reserved FROM inventory WHERE product_id = ?", productId);
+            int available = ((Number) row.get("quantity_available")).intValue();
+            int reserved = ((Number) row.get("quantity_reserved")).intValue();
+            int pending = sumReservations(productId, "PENDING");
+            int confirmed = sumReservations(productId, "CONFIRMED");
+
+            assertTrue(available >= 0, "Negative available stock for " + productId + ": " + available);
+            assertTrue(reserved >= 0, "Negative reserved stock for " + productId + ": " + reserved);
+            assertEquals(pending, reserved, "Reserved stock does not match PENDING reservations for " + productId);
+            assertEquals(INITIAL_STOCK, available + reserved + confirmed,
+                    "Stock was created or lost for " + productId);
+        }
+    }
+
+    private int sumReservations(UUID productId, String status) {
+        Integer sum = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity_reserved), 0) FROM stock_reservation WHERE product_id = ? AND status = ?",
+                Integer.class, productId, status);
+        return sum != null ? sum : 0;
+    }
+
+    private void assertLedgerConsistent() {
+        LedgerVerificationReportDTO report = inventoryLedgerService.verify();
+        assertEquals(0, report.getFailures(), "Ledger verification failed for some products");
+        assertEquals(0, report.getDriftCount(), "Ledger drifted from inventory rows: " + report.getDrifts());
+    }
+
+    // ========================================
+    // HELPER METHODS
+    // ========================================
+
+    private List<UUID> createProducts() {
+        List<UUID> productIds = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            UUID productId = UUID.randomUUID();
+            inventoryService.createInventory(InventoryCreateRequestDTO.builder()
+                    .productId(productId)
+                    .productName("Stress Product " + i)
+                    .sku("STRESS-" + productId)
+                    .initialQuantity(INITIAL_STOCK)
+                    .reorderLevel(10)
+                    .reorderQuantity(100)
+                    .build(), INITIAL_STOCK);
+            productIds.add(productId);
+        }
+        return productIds;
+    }
+
+    private static void report(Counters counters, List<Long> latencies, long elapsedNanos) {
+        Collections.sort(latencies);
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        log.info("Stress run: {} threads x {} operations on {} products in {} s ({} ops/s)",
+                THREADS, OPERATIONS_PER_THREAD, PRODUCTS, String.format("%.2f", seconds),
+                String.format("%.0f", latencies.size() / seconds));
+        log.info("Latency p50 {} ms, p99 {} ms, max {} ms",
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(latencies.getLast()));
+        log.info("Reserved {}, confirmed {}, released {}, expired {}, cleanups {}, rejected {}, state conflicts {}",
+                counters.reserved, counters.confirmed, counters.released, counters.expired,
+                counters.cleanups, counters.rejected, counters.stateConflicts);
+        log.info("Lock failures (deadlock or lock timeout) {}, optimistic-lock failures {}, unexpected {}",
+                counters.lockFailures, counters.optimisticLockFailures, counters.unexpected);
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    private static class Counters {
+        final AtomicInteger reserved = new AtomicInteger();
+        final AtomicInteger confirmed = new AtomicInteger();
+        final AtomicInteger released = new AtomicInteger();
+        final AtomicInteger expired = new AtomicInteger();
+        final AtomicInteger cleanups = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final AtomicInteger stateConflicts = new AtomicInteger();
+        final AtomicInteger lockFailures = new AtomicInteger();
+        final AtomicInteger optimisticLockFailures = new AtomicInteger();
+        final AtomicInteger unexpected = new AtomicInteger();
+        volatile String firstUnexpected;
+    }
+}
@@ -0,0 +1,185 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.request.InventoryCreateRequestDTO;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.StockTotalsDTO;
+import com.pm.inventoryservice.exception.StockOperationException;
+import com.pm.inventoryservice.model.ReservationEngineMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The Redis reservation engine and its change applier against a real Redis, with the
+ * database on its own H2 instance so products from other tests cannot block the mode switch.
+ * The scheduled applier, hold expiry and reconciler are parked; each test drives the applier
+ * itself. Skipped when Docker is unavailable.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Redis Reservation Engine")
+class RedisReservationEngineTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", () -> REDIS.getMappedPort(6379));
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:redisenginedb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+        registry.add("inventory.redis-reservations.enabled", () -> "true");
+        registry.add("inventory.redis-reservations.switch-grace", () -> "PT0S");
+        registry.add("inventory.redis-reservations.apply-interval-ms", () -> "3600000");
+        registry.add("inventory.redis-reservations.expiry-interval-ms", () -> "3600000");
+        registry.add("inventory.redis-reservations.reconcile-cron", () -> "-");
+    }
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private RedisReservationEngine redisReservationEngine;
+
+    @Autowired
+    private RedisStockChangeApplier redisStockChangeApplier;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void serveFromRedis() {
+        redisReservationEngine.switchMode(ReservationEngineMode.REDIS);
+    }
+
+    @AfterEach
+    void serveFromDatabase() {
+        redisStockChangeApplier.apply();
+        redisReservationEngine.switchMode(ReservationEngineMode.DATABASE);
+    }
+
+    @Test
+    @DisplayName("A multi-item hold one product cannot cover holds nothing")
+    void multiItemHoldIsAllOrNothing() {
+        UUID plenty = createProduct(10);
+        UUID scarce = createProduct(1);
+        UUID orderId = UUID.randomUUID();
+
+        assertThrows(StockOperationException.class,
+                () -> redisReservationEngine.reserve(orderId, List.of(item(plenty, 4), item(scarce, 2))));
+
+        assertTotals(10, 0, redisReservationEngine.getTotals(plenty));
+        assertTotals(1, 0, redisReservationEngine.getTotals(scarce));
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(RedisReservationEngine.HOLD_PREFIX + orderId)));
+        assertEquals(0, streamLength());
+
+        assertEquals(2, redisReservationEngine.reserve(orderId, List.of(item(plenty, 4), item(scarce, 1))).size());
+
+        assertTotals(6, 4, redisReservationEngine.getTotals(plenty));
+        assertTotals(0, 1, redisReservationEngine.getTotals(scarce));
+        assertEquals(1, streamLength());
+    }
+
+    @Test
+    @DisplayName("Replaying a batch that was applied but not yet trimmed changes nothing")
+    void replayOfAppliedBatchIsIdempotent() {
+        UUID productId = createProduct(10);
+        UUID kept = UUID.randomUUID();
+        UUID released = UUID.randomUUID();
+        redisReservationEngine.reserve(kept, List.of(item(productId, 3)));
+        redisReservationEngine.reserve(released, List.of(item(productId, 2)));
+        redisReservationEngine.release(released);
+
+        List<MapRecord<String, Object, Object>> batch = redisTemplate.opsForStream()
+                .range(RedisReservationEngine.STREAM_KEY, Range.unbounded());
+        assertNotNull(batch);
+        assertEquals(3, batch.size());
+
+        redisStockChangeApplier.apply();
+        assertEquals(0, streamLength());
+        Map<String, Object> applied = databaseState(productId);
+        assertEquals(7, ((Number) applied.get("available")).intValue());
+        assertEquals(3, ((Number) applied.get("reserved")).intValue());
+
+        // As if the applier had committed and then died before trimming the stream
+        for (MapRecord<String, Object, Object> record : batch) {
+            redisTemplate.opsForStream().add(StreamRecords.newRecord()
+                    .in(RedisReservationEngine.STREAM_KEY)
+                    .ofMap(record.getValue()));
+        }
+        redisStockChangeApplier.apply();
+
+        assertEquals(0, streamLength());
+        assertEquals(applied, databaseState(productId));
+    }
+
+    // ========================================
+    // HELPER METHODS
+    // ========================================
+
+    private UUID createProduct(int quantity) {
+        UUID productId = UUID.randomUUID();
+        inventoryService.createInventory(InventoryCreateRequestDTO.builder()
+                .productId(productId)
+                .productName("Redis Product")
+                .sku("REDIS-" + productId)
+                .initialQuantity(quantity)
+                .reorderLevel(0)
+                .reorderQuantity(100)
+                .build(), quantity);
+        return productId;
+    }
+
+    private static ReservationItemDTO item(UUID productId, int quantity) {
+        return ReservationItemDTO.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    private long streamLength() {
+        Long length = redisTemplate.opsForStream().size(RedisReservationEngine.STREAM_KEY);
+        return length != null ? length : 0;
+    }
+
+    private static void assertTotals(int available, int reserved, StockTotalsDTO totals) {
+        assertNotNull(totals);
+        assertEquals(available, totals.getQuantityAvailable());
+        assertEquals(reserved, totals.getQuantityReserved());
+    }
+
+    // Row, reservations, ledger and outbox as the applier left them
+    private Map<String, Object> databaseState(UUID productId) {
+        return jdbcTemplate.queryForMap("SELECT i.quantity_available AS available, i.quantity_reserved AS reserved, "
+                + "(SELECT COUNT(*) FROM stock_reservation r WHERE r.product_id = i.product_id) AS reservations, "
+                + "(SELECT COUNT(*) FROM stock_reservation r WHERE r.product_id = i.product_id AND r.status = 'PENDING') AS pending, "
+                + "(SELECT COUNT(*) FROM stock_movements m WHERE m.inventory_id = i.inventory_id) AS movements, "
+                + "(SELECT COUNT(*) FROM outbox_events) AS events "
+                + "FROM inventory i WHERE i.product_id = ?", productId);
+    }
+}
@@ -0,0 +1,176 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.dto.request.InventoryCreateRequestDTO;
+import com.pm.inventoryservice.dto.request.ReservationItemDTO;
+import com.pm.inventoryservice.dto.response.StockReservationResponseDTO;
+import com.pm.inventoryservice.exception.StockOperationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bucketed stock against the database: how sharding splits a product, how a reservation
+ * finds a bucket that can cover it, and that rebalancing moves only available stock.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("Sharded Stock")
+class ShardedStockServiceTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Enabling sharding splits available stock evenly and keeps reserved stock in bucket 0")
+    void enableShardingSplitsStock() {
+        UUID productId = createProduct(10);
+        inventoryService.reserveStock(UUID.randomUUID(), List.of(item(productId, 3)));
+
+        inventoryService.enableShardedStock(productId, 4);
+
+        assertArrayEquals(new int[]{2, 2, 2, 1}, available(productId));
+        assertArrayEquals(new int[]{3, 0, 0, 0}, reserved(productId));
+    }
+
+    @Test
+    @DisplayName("A reservation probes past short buckets to one that can cover it, and release returns it there")
+    void reservationProbesToCoveringBucket() {
+        UUID productId = createProduct(40);
+        inventoryService.enableShardedStock(productId, 4);
+        jdbcTemplate.update("UPDATE inventory_buckets SET quantity_available = 0 WHERE product_id = ? AND bucket_index < 3",
+                productId);
+
+        UUID orderId = UUID.randomUUID();
+        List<StockReservationResponseDTO> reservations = inventoryService.reserveStock(orderId, List.of(item(productId, 8)));
+
+        assertEquals(1, reservations.size());
+        assertArrayEquals(new int[]{0, 0, 0, 2}, available(productId));
+        assertArrayEquals(new int[]{0, 0, 0, 8}, reserved(productId));
+
+        inventoryService.releaseReservation(orderId);
+
+        assertArrayEquals(new int[]{0, 0, 0, 10}, available(productId));
+        assertArrayEquals(new int[]{0, 0, 0, 0}, reserved(productId));
+    }
+
+    @Test
+    @DisplayName("A reservation no single bucket covers gathers stock from the others")
+    void reservationGathersAcrossBuckets() {
+        UUID productId = createProduct(40);
+        inventoryService.enableShardedStock(productId, 4);
+
+        inventoryService.reserveStock(UUID.randomUUID(), List.of(item(productId, 25)));
+
+        int[] available = available(productId);
+        int[] reserved = reserved(productId);
+        assertEquals(15, sum(available));
+        assertEquals(25, sum(reserved));
+        assertEquals(25, max(reserved), "The reservation must come from one bucket");
+        for (int quantity : available) {
+            assertTrue(quantity >= 0, "Bucket went negative");
+        }
+    }
+
+    @Test
+    @DisplayName("A reservation larger than all buckets together is refused and changes nothing")
+    void reservationBeyondTotalIsRefused() {
+        UUID productId = createProduct(40);
+        inventoryService.enableShardedStock(productId, 4);
+
+        assertThrows(StockOperationException.class,
+                () -> inventoryService.reserveStock(UUID.randomUUID(), List.of(item(productId, 41))));
+
+        assertArrayEquals(new int[]{10, 10, 10, 10}, available(productId));
+        assertArrayEquals(new int[]{0, 0, 0, 0}, reserved(productId));
+    }
+
+    @Test
+    @DisplayName("Rebalancing evens out available stock and leaves reserved stock where it is")
+    void rebalanceMovesOnlyAvailableStock() {
+        UUID productId = createProduct(40);
+        inventoryService.enableShardedStock(productId, 4);
+        inventoryService.reserveStock(UUID.randomUUID(), List.of(item(productId, 25)));
+        int[] reservedBefore = reserved(productId);
+
+        inventoryService.rebalanceShardedStock(productId);
+
+        int[] available = available(productId);
+        assertEquals(15, sum(available));
+        assertTrue(max(available) - min(available) <= 1, "Buckets not balanced");
+        assertArrayEquals(reservedBefore, reserved(productId));
+    }
+
+    // ========================================
+    // HELPER METHODS
+    // ========================================
+
+    private UUID createProduct(int quantity) {
+        UUID productId = UUID.randomUUID();
+        inventoryService.createInventory(InventoryCreateRequestDTO.builder()
+                .productId(productId)
+                .productName("Sharded Product")
+                .sku("SHARD-" + productId)
+                .initialQuantity(quantity)
+                .reorderLevel(0)
+                .reorderQuantity(100)
+                .build(), quantity);
+        return productId;
+    }
+
+    private static ReservationItemDTO item(UUID productId, int quantity) {
+        return ReservationItemDTO.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+
+    private int[] available(UUID productId) {
+        return bucketColumn(productId, "quantity_available");
+    }
+
+    private int[] reserved(UUID productId) {
+        return bucketColumn(productId, "quantity_reserved");
+    }
+
+    private int[] bucketColumn(UUID productId, String column) {
+        return jdbcTemplate.queryForList("SELECT " + column + " FROM inventory_buckets WHERE product_id = ? ORDER BY bucket_index",
+                        Integer.class, productId).stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static int sum(int[] values) {
+        int sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private static int max(int[] values) {
+        int max = Integer.MIN_VALUE;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    private static int min(int[] values) {
+        int min = Integer.MAX_VALUE;
+        for (int value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+}
@@ -0,0 +1,104 @@
+package com.pm.inventoryservice.service;
+
+import com.pm.inventoryservice.model.AllocationStrategy;
+import com.pm.inventoryservice.service.WarehouseAllocator.Allocation;
+import com.pm.inventoryservice.service.WarehouseAvailabilityCache.Site;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Warehouse Allocator")
+class WarehouseAllocatorTest {
+
+    private static final UUID PRODUCT_A = UUID.randomUUID();
+    private static final UUID PRODUCT_B = UUID.randomUUID();
+
+    // Along the equator, roughly 1100 km apart; orders below ship to (0, 0)
+    private static final Map<String, Site> SITES = Map.of(
+            "NEAR", new Site("NEAR", 0.0, 0.0),
+            "MID", new Site("MID", 0.0, 10.0),
+            "FAR", new Site("FAR", 0.0, 20.0));
+
+    private final WarehouseAllocator allocator = new WarehouseAllocator();
+
+    @Test
+    @DisplayName("Nearest-first fills from the closest warehouse and spills over to the next")
+    void nearestFirstSpillsOverInDistanceOrder() {
+        Map<UUID, List<Allocation>> result = allocator.allocate(
+                Map.of(PRODUCT_A, 8),
+                Map.of(PRODUCT_A, Map.of("NEAR", 5, "MID", 10, "FAR", 10)),
+                SITES, AllocationStrategy.NEAREST_FIRST, 0.0, 0.0);
+
+        assertNotNull(result);
+        assertEquals(List.of(new Allocation(PRODUCT_A, "NEAR", 5), new Allocation(PRODUCT_A, "MID", 3)),
+                result.get(PRODUCT_A));
+    }
+
+    @Test
+    @DisplayName("Nearest-first skips warehouses that are not active sites")
+    void nearestFirstIgnoresUnknownWarehouses() {
+        Map<UUID, List<Allocation>> result = allocator.allocate(
+                Map.of(PRODUCT_A, 4),
+                Map.of(PRODUCT_A, Map.of("CLOSED", 100, "FAR", 4)),
+                SITES, AllocationStrategy.NEAREST_FIRST, 0.0, 0.0);
+
+        assertNotNull(result);
+        assertEquals(List.of(new Allocation(PRODUCT_A, "FAR", 4)), result.get(PRODUCT_A));
+    }
+
+    @Test
+    @DisplayName("Fewest-splits ships from one warehouse that covers the whole order, even a farther one")
+    void fewestSplitsPrefersSingleWarehouse() {
+        Map<UUID, List<Allocation>> result = allocator.allocate(
+                Map.of(PRODUCT_A, 3, PRODUCT_B, 2),
+                Map.of(PRODUCT_A, Map.of("NEAR", 3, "FAR", 3),
+                        PRODUCT_B, Map.of("MID", 2, "FAR", 2)),
+                SITES, AllocationStrategy.FEWEST_SPLITS, 0.0, 0.0);
+
+        assertNotNull(result);
+        assertEquals(List.of(new Allocation(PRODUCT_A, "FAR", 3)), result.get(PRODUCT_A));
+        assertEquals(List.of(new Allocation(PRODUCT_B, "FAR", 2)), result.get(PRODUCT_B));
+    }
+
+    @Test
+    @DisplayName("Fewest-splits breaks ties on coverage by distance")
+    void fewestSplitsBreaksTiesByDistance() {
+        Map<UUID, List<Allocation>> result = allocator.allocate(
+                Map.of(PRODUCT_A, 3),
+                Map.of(PRODUCT_A, Map.of("MID", 3, "FAR", 3)),
+                SITES, AllocationStrategy.FEWEST_SPLITS, 0.0, 0.0);
+
+        assertNotNull(result);
+        assertEquals(List.of(new Allocation(PRODUCT_A, "MID", 3)), result.get(PRODUCT_A));
+    }
+
+    @Test
+    @DisplayName("Fewest-splits combines warehouses when none covers the order alone")
+    void fewestSplitsCombinesWarehouses() {
+        Map<UUID, List<Allocation>> result = allocator.allocate(
+                Map.of(PRODUCT_A, 10),
+                Map.of(PRODUCT_A, Map.of("NEAR", 4, "MID", 7, "FAR", 2)),
+                SITES, AllocationStrategy.FEWEST_SPLITS, 0.0, 0.0);
+
+        assertNotNull(result);
+        assertEquals(List.of(new Allocation(PRODUCT_A, "MID", 7), new Allocation(PRODUCT_A, "NEAR", 3)),
+                result.get(PRODUCT_A));
+    }
+
+    @Test
+    @DisplayName("Both strategies refuse demand the warehouses cannot cover")
+    void insufficientStockReturnsNull() {
+        Map<UUID, Integer> demand = Map.of(PRODUCT_A, 5, PRODUCT_B, 1);
+        Map<UUID, Map<String, Integer>> availability = Map.of(
+                PRODUCT_A, Map.of("NEAR", 2, "MID", 2),
+                PRODUCT_B, Map.of("FAR", 1));
+
+        assertNull(allocator.allocate(demand, availability, SITES, AllocationStrategy.NEAREST_FIRST, 0.0, 0.0));
+        assertNull(allocator.allocate(demand, availability, SITES, AllocationStrategy.FEWEST_SPLITS, 0.0, 0.0));
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.orderservice.dto;
+
+import com.pm.orderservice.model.InventoryCommandType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCommandDTO {
+    private UUID orderId;
+    private InventoryCommandType commandType;
+    private List<InventoryCommandItemDTO> items;
+}
@@ -0,0 +1,17 @@
+package com.pm.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCommandItemDTO {
+    private UUID productId;
+    private Integer quantity;
+}
@@ -0,0 +1,21 @@
+package com.pm.orderservice.dto;
+
+import com.pm.orderservice.model.InventoryCommandType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCommandReplyDTO {
+    private UUID orderId;
+    private InventoryCommandType commandType;
+    private boolean success;
+    private String reservationStatus;
+    private String message;
+}
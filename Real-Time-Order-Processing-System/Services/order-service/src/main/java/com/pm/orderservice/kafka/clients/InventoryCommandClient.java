@@ -0,0 +1,125 @@
+package com.pm.orderservice.kafka.clients;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.orderservice.dto.InventoryCommandDTO;
+import com.pm.orderservice.dto.InventoryCommandItemDTO;
+import com.pm.orderservice.dto.InventoryCommandReplyDTO;
+import com.pm.orderservice.exception.OrderServiceException;
+import com.pm.orderservice.model.InventoryCommandType;
+import com.pm.orderservice.model.OrderItem;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.requestreply.ReplyingKafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking client for inventory-service reservations over Kafka. Commands go to the
+ * inventory-commands topic keyed by orderId, so all commands for one order are handled in
+ * the order they were sent, and the returned future completes when inventory-service answers
+ * on the reply topic. Each instance reads replies in its own consumer group and keeps only
+ * those matching its own correlation ids, so instances can be added freely.
+ */
+@Component
+@Slf4j
+public class InventoryCommandClient implements SmartLifecycle {
+
+    private final ReplyingKafkaTemplate<String, String, String> replyingTemplate;
+    private final ObjectMapper objectMapper;
+    private final String commandsTopic;
+
+    public InventoryCommandClient(ProducerFactory<String, String> producerFactory,
+                                  ConsumerFactory<String, String> consumerFactory,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.kafka.topics.inventory-commands:inventory-commands}") String commandsTopic,
+                                  @Value("${app.kafka.topics.inventory-command-replies:inventory-command-replies}") String repliesTopic,
+                                  @Value("${app.inventory-commands.reply-timeout:PT5S}") Duration replyTimeout) {
+        ContainerProperties containerProperties = new ContainerProperties(repliesTopic);
+        containerProperties.setGroupId("order-service-inventory-replies-" + UUID.randomUUID());
+        // A fresh group per instance only needs replies to requests it is about to send
+        containerProperties.getKafkaConsumerProperties().setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        this.replyingTemplate = new ReplyingKafkaTemplate<>(producerFactory,
+                new KafkaMessageListenerContainer<>(consumerFactory, containerProperties));
+        this.replyingTemplate.setDefaultReplyTimeout(replyTimeout);
+        this.replyingTemplate.setSharedReplyTopic(true);
+        this.objectMapper = objectMapper;
+        this.commandsTopic = commandsTopic;
+    }
+
+    public CompletableFuture<InventoryCommandReplyDTO> reserve(UUID orderId, List<OrderItem> orderItems) {
+        List<InventoryCommandItemDTO> items = orderItems.stream()
+                .map(item -> InventoryCommandItemDTO.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .toList();
+        return send(InventoryCommandDTO.builder()
+                .orderId(orderId)
+                .commandType(InventoryCommandType.RESERVE)
+                .items(items)
+                .build());
+    }
+
+    public CompletableFuture<InventoryCommandReplyDTO> confirm(UUID orderId) {
+        return send(InventoryCommandDTO.builder()
+                .orderId(orderId)
+                .commandType(InventoryCommandType.CONFIRM)
+                .build());
+    }
+
+    public CompletableFuture<InventoryCommandReplyDTO> release(UUID orderId) {
+        return send(InventoryCommandDTO.builder()
+                .orderId(orderId)
+                .commandType(InventoryCommandType.RELEASE)
+                .build());
+    }
+
+    private CompletableFuture<InventoryCommandReplyDTO> send(InventoryCommandDTO command) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(command);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing inventory command: {}", e.getMessage());
+            throw new OrderServiceException("Error serializing inventory command", e);
+        }
+
+        ProducerRecord<String, String> record = new ProducerRecord<>(commandsTopic, command.getOrderId().toString(), payload);
+        return replyingTemplate.sendAndReceive(record)
+                .thenApply(reply -> {
+                    try {
+                        return objectMapper.readValue(reply.value(), InventoryCommandReplyDTO.class);
+                    } catch (JsonProcessingException e) {
+                        log.error("Unreadable inventory reply for orderId: {}: {}", command.getOrderId(), e.getMessage());
+                        throw new OrderServiceException("Unreadable inventory reply for orderId: " + command.getOrderId(), e);
+                    }
+                });
+    }
+
+    @Override
+    public void start() {
+        replyingTemplate.start();
+    }
+
+    @Override
+    public void stop() {
+        replyingTemplate.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return replyingTemplate.isRunning();
+    }
+}
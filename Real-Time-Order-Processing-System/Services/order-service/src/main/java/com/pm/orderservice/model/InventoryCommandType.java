@@ -0,0 +1,7 @@
+package com.pm.orderservice.model;
+
+public enum InventoryCommandType {
+    RESERVE,
+    CONFIRM,
+    RELEASE
+}